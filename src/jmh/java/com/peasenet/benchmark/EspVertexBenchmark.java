@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.peasenet.util.RenderUtils;
+import com.peasenet.util.color.Colors;
+import com.peasenet.util.render.VertexEmitter;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Benchmarks emitting esp boxes and tracer lines into a cpu side buffer, the way RenderUtils does every frame. Nothing
+ * is uploaded to the gpu, so this runs without a window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EspVertexBenchmark {
+
+    /**
+     * The number of boxes (or lines) emitted per invocation.
+     */
+    @Param({"64", "512"})
+    public int count;
+
+    /**
+     * The buffer that vertices are emitted into.
+     */
+    private BufferBuilder buffer;
+
+    /**
+     * The matrix stack used to emit vertices.
+     */
+    private MatrixStack stack;
+
+    /**
+     * The boxes to emit.
+     */
+    private Box[] boxes;
+
+    /**
+     * The centers of the boxes, used as the ends of the tracers.
+     */
+    private Vec3f[] centers;
+
+    /**
+     * The start of the tracers.
+     */
+    private Vec3f playerPos;
+
+    /**
+     * The emitter used by the allocation free variants.
+     */
+    private final VertexEmitter emitter = new VertexEmitter();
+
+    @Setup
+    public void setup() {
+        GameBootstrap.initialize();
+        buffer = new BufferBuilder(count * 24 * VertexFormats.POSITION_COLOR.getVertexSizeByte());
+        stack = new MatrixStack();
+        boxes = new Box[count];
+        centers = new Vec3f[count];
+        var random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            var x = random.nextInt(256) - 128;
+            var y = random.nextInt(128) - 64;
+            var z = random.nextInt(256) - 128;
+            boxes[i] = new Box(x, y, z, x + 1, y + 1, z + 1);
+            centers[i] = new Vec3f(boxes[i].getCenter());
+        }
+        playerPos = new Vec3f(0.5f, 1.6f, 0.5f);
+    }
+
+    @Benchmark
+    public Object boxes() {
+        buffer.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR);
+        for (var box : boxes)
+            WorldRenderer.drawBox(stack, buffer, box, 1f, 0f, 1f, 1f);
+        var built = buffer.end();
+        buffer.clear();
+        return built;
+    }
+
+    @Benchmark
+    public Object lines() {
+        buffer.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR);
+        for (var center : centers)
+            RenderUtils.renderSingleLine(stack, buffer, playerPos, center, Colors.PURPLE);
+        var built = buffer.end();
+        buffer.clear();
+        return built;
+    }
+
+    @Benchmark
+    public Object emitterBoxes() {
+        buffer.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR);
+        emitter.begin(stack);
+        var argb = VertexEmitter.pack(Colors.PURPLE, 1f);
+        for (var box : boxes)
+            emitter.emitBox(buffer, box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, argb);
+        var built = buffer.end();
+        buffer.clear();
+        return built;
+    }
+}
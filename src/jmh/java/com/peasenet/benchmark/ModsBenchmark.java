@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.peasenet.main.GavinsMod;
+import com.peasenet.main.Mods;
+import com.peasenet.mods.Mod;
+import com.peasenet.mods.Type;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Benchmarks the lookups of the mod registry that mixins make on hot paths. The mods themselves need a running
+ * client to be created, so these measure the lookups on an empty registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModsBenchmark {
+
+    /**
+     * The type of mod to look up.
+     */
+    @Param({"XRAY", "FULL_BRIGHT", "NO_RAIN"})
+    public Type type;
+
+    @Benchmark
+    public List<Mod> getMods() {
+        return Mods.getMods();
+    }
+
+    @Benchmark
+    public boolean isEnabled() {
+        return GavinsMod.isEnabled(type);
+    }
+
+    @Benchmark
+    public boolean isAnyEnabled() {
+        return GavinsMod.isAnyEnabled(type.getModCategory());
+    }
+}
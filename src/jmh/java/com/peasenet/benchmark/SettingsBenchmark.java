@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.google.gson.Gson;
+import com.peasenet.main.Settings;
+import com.peasenet.util.color.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Benchmarks reading colors and booleans from the settings, which happens many times per frame. The legacy
+ * benchmarks decode the raw value with gson on every read, the way the settings used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettingsBenchmark {
+
+    /**
+     * The gson instance used by the legacy benchmark.
+     */
+    private final Gson gson = new Gson();
+
+    /**
+     * The raw value of a color, as it is stored in the settings file.
+     */
+    private String rawColor;
+
+    @Setup
+    public void setup() {
+        rawColor = gson.toJson(Settings.ESP_CHEST_COLOR.getDefault());
+    }
+
+    @Benchmark
+    public Color getColorByKey() {
+        return Settings.ESP_CHEST_COLOR.get();
+    }
+
+    @Benchmark
+    public Color getColorByName() {
+        return Settings.getColor("esp.chest.color");
+    }
+
+    @Benchmark
+    public Color getColorLegacy() {
+        return gson.fromJson(rawColor, Color.class);
+    }
+
+    @Benchmark
+    public boolean getBoolByKey() {
+        return Settings.TRACER_OFFSCREEN.get();
+    }
+
+    @Benchmark
+    public boolean getBoolByName() {
+        return Settings.getBool("tracer.offscreen");
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.peasenet.util.world.WorldSnapshot;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Replays a world snapshot through the esp and tracer geometry. Snapshots are captured in game with ".snapshot", and
+ * passed in with -p snapshot=path/to/snapshot.gmss. Without one, a synthetic mob farm and storage hall is replayed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotReplayBenchmark {
+
+    /**
+     * The snapshot file to replay, or empty for the synthetic snapshot.
+     */
+    @Param({""})
+    public String snapshot;
+
+    /**
+     * Whether to cull against the frustum of the camera.
+     */
+    @Param({"true", "false"})
+    public boolean cull;
+
+    /**
+     * The replayer under test.
+     */
+    private SnapshotReplayer replayer;
+
+    /**
+     * The buffer that vertices are emitted into.
+     */
+    private BufferBuilder buffer;
+
+    /**
+     * The matrix stack used to emit vertices.
+     */
+    private MatrixStack stack;
+
+    @Setup
+    public void setup() throws IOException {
+        GameBootstrap.initialize();
+        var world = snapshot.isEmpty() ? SnapshotReplayer.synthetic(4000, 4096) : WorldSnapshot.read(Path.of(snapshot));
+        replayer = new SnapshotReplayer(world, cull);
+        var boxes = world.getEntityCount() + world.getContainerCount() + world.getWaypointCount();
+        // 24 vertices per box, and 2 per tracer.
+        buffer = new BufferBuilder(boxes * 26 * VertexFormats.POSITION_COLOR.getVertexSizeByte());
+        stack = new MatrixStack();
+    }
+
+    @Benchmark
+    public Object replay() {
+        buffer.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR);
+        replayer.replay(stack, buffer);
+        var built = buffer.end();
+        buffer.clear();
+        return built;
+    }
+}
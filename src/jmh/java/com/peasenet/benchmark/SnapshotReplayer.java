@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.peasenet.main.Settings;
+import com.peasenet.util.RenderUtils;
+import com.peasenet.util.color.Color;
+import com.peasenet.util.world.EntityIndex;
+import com.peasenet.util.world.WorldSnapshot;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.Frustum;
+import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Matrix4f;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.Vec3f;
+
+import java.util.Random;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Replays a world snapshot through the esp and tracer geometry, the same way RenderUtils#afterEntities does: a box
+ * for every entity, container and waypoint in view, and a tracer to each of them, emitted into a cpu side buffer.
+ */
+final class SnapshotReplayer {
+
+    /**
+     * The snapshot to replay.
+     */
+    private final WorldSnapshot snapshot;
+
+    /**
+     * The frustum of the camera of the snapshot, or null to draw everything.
+     */
+    private final Frustum frustum;
+
+    /**
+     * The boxes of the entities.
+     */
+    private final Box[] entityBoxes;
+
+    /**
+     * The colors of the entities, by category.
+     */
+    private final Color[] entityColors = new Color[4];
+
+    /**
+     * The start of the tracers.
+     */
+    private final Vec3f camera;
+
+    /**
+     * Creates a new replayer.
+     *
+     * @param snapshot - The snapshot to replay.
+     * @param cull     - Whether to cull the boxes against the frustum of the camera, like the game does.
+     */
+    SnapshotReplayer(WorldSnapshot snapshot, boolean cull) {
+        this.snapshot = snapshot;
+        var cameraPos = snapshot.getCamera();
+        camera = new Vec3f(cameraPos);
+        frustum = cull ? createFrustum(snapshot) : null;
+        var positions = snapshot.getEntityPositions();
+        var sizes = snapshot.getEntitySizes();
+        entityBoxes = new Box[snapshot.getEntityCount()];
+        for (int i = 0; i < entityBoxes.length; i++) {
+            var x = positions[i * 3];
+            var y = positions[i * 3 + 1];
+            var z = positions[i * 3 + 2];
+            var halfWidth = sizes[i * 2] / 2.0;
+            entityBoxes[i] = new Box(x - halfWidth, y, z - halfWidth, x + halfWidth, y + sizes[i * 2 + 1], z + halfWidth);
+        }
+        entityColors[EntityIndex.ITEM] = Settings.ESP_ITEM_COLOR.getDefault();
+        entityColors[EntityIndex.PLAYER] = Settings.ESP_PLAYER_COLOR.getDefault();
+        entityColors[EntityIndex.HOSTILE] = Settings.ESP_MOB_HOSTILE_COLOR.getDefault();
+        entityColors[EntityIndex.PEACEFUL] = Settings.ESP_MOB_PEACEFUL_COLOR.getDefault();
+    }
+
+    /**
+     * Creates the frustum of the camera of the given snapshot, with a 70 degree field of view.
+     *
+     * @param snapshot - The snapshot.
+     * @return The frustum.
+     */
+    private static Frustum createFrustum(WorldSnapshot snapshot) {
+        var view = new MatrixStack();
+        view.multiply(Vec3f.POSITIVE_X.getDegreesQuaternion(snapshot.getPitch()));
+        view.multiply(Vec3f.POSITIVE_Y.getDegreesQuaternion(snapshot.getYaw() + 180f));
+        var projection = Matrix4f.viewboxMatrix(70, 16f / 9f, 0.05f, 512f);
+        var frustum = new Frustum(view.peek().getPositionMatrix(), projection);
+        var camera = snapshot.getCamera();
+        frustum.setPosition(camera.x, camera.y, camera.z);
+        return frustum;
+    }
+
+    /**
+     * Emits the geometry of the snapshot into the given buffer, which must have been begun with the debug lines draw
+     * mode and the position color format.
+     *
+     * @param stack  - The matrix stack to emit with.
+     * @param buffer - The buffer to emit into.
+     * @return The number of boxes emitted.
+     */
+    int replay(MatrixStack stack, BufferBuilder buffer) {
+        var boxes = 0;
+        var categories = snapshot.getEntityCategories();
+        for (int i = 0; i < entityBoxes.length; i++) {
+            var color = entityColors[categories[i]];
+            boxes += emit(stack, buffer, entityBoxes[i], color);
+        }
+        var containers = snapshot.getContainerPositions();
+        var chestColor = Settings.ESP_CHEST_COLOR.getDefault();
+        for (int i = 0; i < snapshot.getContainerCount(); i++) {
+            var x = containers[i * 3];
+            var y = containers[i * 3 + 1];
+            var z = containers[i * 3 + 2];
+            boxes += emit(stack, buffer, new Box(x, y, z, x + 1, y + 1, z + 1), chestColor);
+        }
+        var waypoints = snapshot.getWaypointPositions();
+        var colors = snapshot.getWaypointColors();
+        for (int i = 0; i < snapshot.getWaypointCount(); i++) {
+            var x = waypoints[i * 3];
+            var y = waypoints[i * 3 + 1];
+            var z = waypoints[i * 3 + 2];
+            boxes += emit(stack, buffer, new Box(x, y, z, x + 1, y + 1, z + 1), Color.fromInt(colors[i]));
+        }
+        return boxes;
+    }
+
+    /**
+     * Emits the box and the tracer of a single target.
+     *
+     * @param stack  - The matrix stack to emit with.
+     * @param buffer - The buffer to emit into.
+     * @param box    - The box of the target.
+     * @param color  - The color of the target.
+     * @return 1 if the box was in view and emitted, 0 otherwise.
+     */
+    private int emit(MatrixStack stack, BufferBuilder buffer, Box box, Color color) {
+        if (frustum != null && !frustum.isVisible(box)) return 0;
+        WorldRenderer.drawBox(stack, buffer, box, color.getRed(), color.getGreen(), color.getBlue(), 1f);
+        RenderUtils.renderSingleLine(stack, buffer, camera, new Vec3f(box.getCenter()), color);
+        return 1;
+    }
+
+    /**
+     * Creates a synthetic snapshot of a pathological base: a mob farm with a few thousand mobs packed into a small
+     * area, and a storage hall with a few thousand chests, around a camera looking at both.
+     *
+     * @param mobs   - The number of mobs.
+     * @param chests - The number of chests.
+     * @return The snapshot.
+     */
+    static WorldSnapshot synthetic(int mobs, int chests) {
+        var random = new Random(42);
+        var entityPositions = new double[mobs * 3];
+        var entitySizes = new float[mobs * 2];
+        var entityCategories = new byte[mobs];
+        for (int i = 0; i < mobs; i++) {
+            entityPositions[i * 3] = 16 + random.nextDouble() * 8;
+            entityPositions[i * 3 + 1] = 64 + random.nextDouble() * 2;
+            entityPositions[i * 3 + 2] = 16 + random.nextDouble() * 8;
+            entitySizes[i * 2] = 0.6f;
+            entitySizes[i * 2 + 1] = 1.95f;
+            entityCategories[i] = random.nextInt(8) == 0 ? EntityIndex.ITEM : EntityIndex.HOSTILE;
+        }
+        var containerPositions = new int[chests * 3];
+        var containerTypes = new byte[chests];
+        for (int i = 0; i < chests; i++) {
+            // walls of chests, 4 high, in rows 3 blocks apart.
+            containerPositions[i * 3] = -32 + (i / 4) % 64;
+            containerPositions[i * 3 + 1] = 64 + i % 4;
+            containerPositions[i * 3 + 2] = -8 - (i / 256) * 3;
+        }
+        return new WorldSnapshot(new Vec3d(0, 65.6, 0), 135f, 10f, entityPositions, entitySizes, entityCategories,
+                containerPositions, containerTypes, new int[]{100, 64, 100}, new int[]{0xFF00FF}, new byte[]{3});
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.peasenet.mods.combat.TargetSelector;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.Vec3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Benchmarks selecting the kill aura targets out of a synthetic set of candidates. Living entities need a world to be
+ * created, so the candidates only have a distance, and are ranked by the nearest priority. The sort benchmark sorts
+ * every candidate and keeps the first few, the way kill aura used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetSelectionBenchmark {
+
+    /**
+     * The number of candidates.
+     */
+    @Param({"16", "256", "4096"})
+    public int candidates;
+
+    /**
+     * The number of targets to keep.
+     */
+    @Param({"1", "5"})
+    public int limit;
+
+    /**
+     * The selector under test.
+     */
+    private final TargetSelector selector = new TargetSelector();
+
+    /**
+     * The squared distance of each candidate.
+     */
+    private double[] distances;
+
+    /**
+     * A scratch array used by the sort benchmark.
+     */
+    private double[] sorted;
+
+    /**
+     * The selected targets.
+     */
+    private LivingEntity[] out;
+
+    @Setup
+    public void setup() {
+        var random = new Random(42);
+        distances = new double[candidates];
+        for (int i = 0; i < candidates; i++)
+            distances[i] = random.nextDouble() * 36;
+        sorted = new double[candidates];
+        out = new LivingEntity[limit];
+    }
+
+    @Benchmark
+    public int selector() {
+        selector.begin(Vec3d.ZERO, new Vec3d(0, 0, 1), TargetSelector.Priority.NEAREST, limit);
+        for (var distance : distances)
+            selector.offer(null, distance);
+        return selector.drain(out);
+    }
+
+    @Benchmark
+    public double sort() {
+        System.arraycopy(distances, 0, sorted, 0, candidates);
+        Arrays.sort(sorted);
+        return sorted[Math.min(limit, candidates) - 1];
+    }
+}
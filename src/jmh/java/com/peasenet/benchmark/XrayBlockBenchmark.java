@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.peasenet.mods.render.xray.XrayBlockTable;
+import net.minecraft.block.Block;
+import net.minecraft.util.registry.Registry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Benchmarks checking whether blocks are visible with xray, which happens for every block that is meshed while xray
+ * is enabled. Each invocation checks every block of the registry once. The legacy benchmark looks the name of the
+ * block up in a set of strings, the way Settings#isXrayBlock used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XrayBlockBenchmark {
+
+    /**
+     * Every block of the registry.
+     */
+    private Block[] blocks;
+
+    /**
+     * The compiled table of xray blocks.
+     */
+    private XrayBlockTable table;
+
+    /**
+     * The names of the xray blocks, as the settings used to store them.
+     */
+    private LinkedHashSet<String> names;
+
+    @Setup
+    public void setup() {
+        GameBootstrap.initialize();
+        blocks = Registry.BLOCK.stream().toArray(Block[]::new);
+        names = new LinkedHashSet<>();
+        // every eighth block is an xray block, which is about as many as the default ore list.
+        for (int i = 0; i < blocks.length; i += 8)
+            names.add(blocks[i].toString());
+        table = XrayBlockTable.of(new ArrayList<>(names));
+    }
+
+    @Benchmark
+    public int table() {
+        var count = 0;
+        for (var block : blocks)
+            if (table.contains(block)) count++;
+        return count;
+    }
+
+    @Benchmark
+    public int legacy() {
+        var count = 0;
+        for (var block : blocks)
+            if (names.contains(block.toString())) count++;
+        return count;
+    }
+}
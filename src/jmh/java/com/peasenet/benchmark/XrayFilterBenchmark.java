@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.benchmark;
+
+import com.peasenet.mods.render.xray.BlockCatalog;
+import net.minecraft.block.Block;
+import net.minecraft.util.registry.Registry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Benchmarks filtering the blocks of the xray menu by the search text, which happens on every key press. The linear
+ * scan is how the menu used to search, and is kept as the baseline for the block catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XrayFilterBenchmark {
+
+    /**
+     * The search text.
+     */
+    @Param({"", "ore", "deepslate_diamond"})
+    public String search;
+
+    /**
+     * Every block of the registry.
+     */
+    private List<Block> blocks;
+
+    /**
+     * The catalog of the blocks, with the translation keys as names.
+     */
+    private BlockCatalog catalog;
+
+    @Setup
+    public void setup() {
+        GameBootstrap.initialize();
+        blocks = Registry.BLOCK.stream().toList();
+        catalog = BlockCatalog.build(blocks, key -> key, "none");
+    }
+
+    @Benchmark
+    public List<Block> filter() {
+        var result = new ArrayList<Block>();
+        for (var block : blocks)
+            if (block.getTranslationKey().toLowerCase().contains(search)) result.add(block);
+        return result;
+    }
+
+    @Benchmark
+    public int[] catalog() {
+        return catalog.search(search, null);
+    }
+
+    @Benchmark
+    public BlockCatalog buildCatalog() {
+        return BlockCatalog.build(blocks, key -> key, "none");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.event;
+
+import java.util.function.IntFunction;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * An event that listeners can subscribe to. The listeners are kept in an array sorted by priority, which is replaced
+ * (never modified) when a listener subscribes or unsubscribes, so firing the event only walks the array and never
+ * allocates or locks.
+ *
+ * @param <L> The type of the listeners of this event.
+ */
+public final class Event<L> {
+
+    /**
+     * Creates arrays of the listener type.
+     */
+    private final IntFunction<L[]> arrayFactory;
+
+    /**
+     * The current listeners, highest priority first.
+     */
+    private volatile L[] listeners;
+
+    /**
+     * The priority of each listener, in the same order as the listeners.
+     */
+    private int[] priorities = new int[0];
+
+    /**
+     * Creates a new event.
+     *
+     * @param arrayFactory - Creates arrays of the listener type, ie, TickListener[]::new.
+     */
+    public Event(IntFunction<L[]> arrayFactory) {
+        this.arrayFactory = arrayFactory;
+        listeners = arrayFactory.apply(0);
+    }
+
+    /**
+     * Subscribes the given listener with the default priority of 0.
+     *
+     * @param listener - The listener to subscribe.
+     */
+    public void subscribe(L listener) {
+        subscribe(listener, 0);
+    }
+
+    /**
+     * Subscribes the given listener. Listeners with a higher priority are called first, and listeners with the same
+     * priority are called in the order they subscribed. Subscribing a listener that is already subscribed does nothing.
+     *
+     * @param listener - The listener to subscribe.
+     * @param priority - The priority of the listener.
+     */
+    public synchronized void subscribe(L listener, int priority) {
+        var current = listeners;
+        for (L l : current)
+            if (l == listener) return;
+        var index = 0;
+        while (index < current.length && priorities[index] >= priority) index++;
+        var newListeners = arrayFactory.apply(current.length + 1);
+        var newPriorities = new int[current.length + 1];
+        System.arraycopy(current, 0, newListeners, 0, index);
+        System.arraycopy(priorities, 0, newPriorities, 0, index);
+        newListeners[index] = listener;
+        newPriorities[index] = priority;
+        System.arraycopy(current, index, newListeners, index + 1, current.length - index);
+        System.arraycopy(priorities, index, newPriorities, index + 1, current.length - index);
+        priorities = newPriorities;
+        listeners = newListeners;
+    }
+
+    /**
+     * Unsubscribes the given listener, if it is subscribed.
+     *
+     * @param listener - The listener to unsubscribe.
+     */
+    public synchronized void unsubscribe(L listener) {
+        var current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != listener) continue;
+            var newListeners = arrayFactory.apply(current.length - 1);
+            System.arraycopy(current, 0, newListeners, 0, i);
+            System.arraycopy(current, i + 1, newListeners, i, current.length - i - 1);
+            var newPriorities = new int[current.length - 1];
+            System.arraycopy(priorities, 0, newPriorities, 0, i);
+            System.arraycopy(priorities, i + 1, newPriorities, i, current.length - i - 1);
+            priorities = newPriorities;
+            listeners = newListeners;
+            return;
+        }
+    }
+
+    /**
+     * Gets the current listeners, highest priority first. The array must not be modified.
+     *
+     * @return The current listeners.
+     */
+    public L[] getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Gets whether any listener is subscribed, so callers can skip building the arguments of the event.
+     *
+     * @return Whether there are any listeners.
+     */
+    public boolean hasListeners() {
+        return listeners.length != 0;
+    }
+}
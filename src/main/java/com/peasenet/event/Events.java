@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.event;
+
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.entity.Entity;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * All events of the mod, and the methods that fire them. Mods subscribe to the events they need while they are
+ * enabled, so firing an event only calls the mods that are interested in it.
+ */
+public final class Events {
+
+    /**
+     * Fired at the start of every client tick.
+     */
+    public static final Event<TickListener> TICK = new Event<>(TickListener[]::new);
+
+    /**
+     * Fired every frame when the in game hud is rendered.
+     */
+    public static final Event<HudRenderListener> HUD_RENDER = new Event<>(HudRenderListener[]::new);
+
+    /**
+     * Fired when the player attacks an entity.
+     */
+    public static final Event<AttackListener> ATTACK = new Event<>(AttackListener[]::new);
+
+    private Events() {
+    }
+
+    /**
+     * Fires the tick event.
+     */
+    public static void fireTick() {
+        for (var listener : TICK.getListeners())
+            listener.onTick();
+    }
+
+    /**
+     * Fires the hud render event.
+     *
+     * @param matrixStack - The matrix stack of the hud.
+     * @param delta       - The tick delta.
+     */
+    public static void fireHudRender(MatrixStack matrixStack, float delta) {
+        for (var listener : HUD_RENDER.getListeners())
+            listener.onRenderInGameHud(matrixStack, delta);
+    }
+
+    /**
+     * Fires the attack event.
+     *
+     * @param target - The entity that was attacked.
+     */
+    public static void fireAttack(Entity target) {
+        for (var listener : ATTACK.getListeners())
+            listener.onAttack(target);
+    }
+}
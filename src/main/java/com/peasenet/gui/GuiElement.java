@@ -114,11 +114,11 @@ public class GuiElement extends Screen {
         RenderSystem.enableBlend();
         guis.forEach(gui -> {
             if (gui.isParent())
-                gui.setBackground(Settings.getColor("gui.color.category"));
+                gui.setBackground(Settings.GUI_COLOR_CATEGORY.get());
             gui.render(matrixStack, tr, mouseX, mouseY, delta);
         });
         if (titleBox != null) {
-            titleBox.setBackground(Settings.getColor("gui.color.background"));
+            titleBox.setBackground(Settings.GUI_COLOR_BACKGROUND.get());
             titleBox.render(matrixStack, tr, mouseX, mouseY, delta);
         }
         super.render(matrixStack, mouseX, mouseY, delta);
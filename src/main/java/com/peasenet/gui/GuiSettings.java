@@ -64,6 +64,11 @@ public class GuiSettings extends GuiElement {
      */
     GuiScroll guiDropdown;
 
+    /**
+     * The combat dropdown
+     */
+    GuiScroll combatDropdown;
+
     /**
      * Creates a new GUI settings screen.
      */
@@ -75,6 +80,7 @@ public class GuiSettings extends GuiElement {
         guiDropdown = new GuiScroll(new PointD(225, 20), 100, 10, Text.translatable("gavinsmod.settings.gui"));
         espDropdown = new GuiScroll(new PointD(10, 130), 110, 10, Text.translatable("gavinsmod.settings.esp"));
         tracerDropdown = new GuiScroll(new PointD(125, 130), 115, 10, Text.translatable("gavinsmod.settings.tracer"));
+        combatDropdown = new GuiScroll(new PointD(245, 130), 115, 10, Text.translatable("gavinsmod.settings.combat"));
         reloadGui();
 
     }
@@ -97,16 +103,19 @@ public class GuiSettings extends GuiElement {
         addSettings(renderDropdown, Type.Category.RENDER);
         addSettings(miscDropdown, Type.Category.MISC);
         addSettings(guiDropdown, Type.Category.GUI);
+        addSettings(combatDropdown, Type.Category.COMBAT);
         guis.add(tracerDropdown);
         guis.add(espDropdown);
         guis.add(renderDropdown);
         guis.add(miscDropdown);
         guis.add(guiDropdown);
+        guis.add(combatDropdown);
         tracerDropdown.setFrozen(true);
         espDropdown.setFrozen(true);
         renderDropdown.setFrozen(true);
         miscDropdown.setFrozen(true);
         guiDropdown.setFrozen(true);
+        combatDropdown.setFrozen(true);
         guis.forEach(g -> {
             g.setParent(true);
         });
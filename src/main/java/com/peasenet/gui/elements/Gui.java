@@ -99,7 +99,7 @@ public class Gui {
         box = new BoxD(topLeft, width, height);
         defaultPosition = BoxD.copy(box);
         this.title = title;
-        backgroundColor = Settings.getColor("gui.color.background");
+        backgroundColor = Settings.GUI_COLOR_BACKGROUND.get();
         dragging = false;
     }
 
@@ -286,9 +286,9 @@ public class Gui {
     public void render(MatrixStack matrixStack, TextRenderer tr, int mouseX, int mouseY, float delta) {
         if (isHidden()) return;
         RenderUtils.drawBox(backgroundColor.getAsFloatArray(), (int) getX(), (int) getY(), (int) getX2(), (int) getY2() + 1, matrixStack);
-        tr.draw(matrixStack, title, (int) getX() + 2, (int) getY() + 2, (Settings.getColor("gui.color.foreground")).getAsInt());
+        tr.draw(matrixStack, title, (int) getX() + 2, (int) getY() + 2, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
         if (symbol != '\0')
-            tr.draw(matrixStack, String.valueOf(symbol), (int) getX2() + symbolOffsetX, (int) getY() + symbolOffsetY, (Settings.getColor("gui.color.foreground")).getAsInt());
+            tr.draw(matrixStack, String.valueOf(symbol), (int) getX2() + symbolOffsetX, (int) getY() + symbolOffsetY, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
         RenderUtils.drawOutline(Colors.WHITE.getAsFloatArray(), (int) getX(), (int) getY(), (int) getX2(), (int) getY2() + 1, matrixStack);
     }
 
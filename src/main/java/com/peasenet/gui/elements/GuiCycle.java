@@ -68,7 +68,7 @@ public class GuiCycle extends GuiClick {
             } else if (currentIndex >= cycleSize) {
                 currentIndex = 0;
             }
-            if (Settings.getBool("gui.sound")) {
+            if (Settings.GUI_SOUND.get()) {
                 GavinsModClient.getMinecraftClient().getPlayer().playSound(SoundEvents.UI_BUTTON_CLICK, 1.0F, 1.0F);
             }
             callback.callback();
@@ -84,7 +84,7 @@ public class GuiDropdown extends GuiDraggable {
     @Override
     public void render(MatrixStack matrixStack, TextRenderer tr, int mouseX, int mouseY, float delta) {
         updateSymbol();
-        tr.draw(matrixStack, String.valueOf(symbol), (int) getX2() + symbolOffsetX, (int) getY() + symbolOffsetY, (Settings.getColor("foregroundColor")).getAsInt());
+        tr.draw(matrixStack, String.valueOf(symbol), (int) getX2() + symbolOffsetX, (int) getY() + symbolOffsetY, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
         super.render(matrixStack, tr, mouseX, mouseY, delta);
         if (!isOpen()) return;
         var toRender = children.stream().filter(child -> !child.isHidden());
@@ -142,7 +142,7 @@ public class GuiDropdown extends GuiDraggable {
      */
     protected void toggleMenu() {
         isOpen = !isOpen;
-        if (Settings.getBool("gui.sound")) {
+        if (Settings.GUI_SOUND.get()) {
             if (isOpen) GavinsModClient.getPlayer().playSound(SoundEvents.BLOCK_CHEST_OPEN, 0.5f, 1);
             else GavinsModClient.getPlayer().playSound(SoundEvents.BLOCK_CHEST_CLOSE, 0.5f, 1);
         }
@@ -102,19 +102,19 @@ public class GuiScroll extends GuiDropdown {
     @Override
     public void render(MatrixStack matrixStack, TextRenderer tr, int mouseX, int mouseY, float delta) {
         if (isHidden()) return;
-        if (isParent()) setBackground(Settings.getColor("gui.color.category"));
-        else setBackground(Settings.getColor("gui.color.background"));
+        if (isParent()) setBackground(Settings.GUI_COLOR_CATEGORY.get());
+        else setBackground(Settings.GUI_COLOR_BACKGROUND.get());
         RenderUtils.drawBox(getBackgroundColor().getAsFloatArray(), (int) getX(), (int) getY(), (int) getX2(), (int) getY2() + 1, matrixStack);
-        tr.draw(matrixStack, title, (int) getX() + 2, (int) getY() + 2, (Settings.getColor("gui.color.foreground")).getAsInt());
+        tr.draw(matrixStack, title, (int) getX() + 2, (int) getY() + 2, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
         updateSymbol();
-        tr.draw(matrixStack, String.valueOf(symbol), (int) getX2() + symbolOffsetX, (int) getY() + symbolOffsetY, (Settings.getColor("gui.color.foreground")).getAsInt());
+        tr.draw(matrixStack, String.valueOf(symbol), (int) getX2() + symbolOffsetX, (int) getY() + symbolOffsetY, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
         RenderUtils.drawOutline(Colors.WHITE.getAsFloatArray(), (int) getX(), (int) getY(), (int) getX2(), (int) getY2() + 1, matrixStack);
 
         if (!isOpen()) return;
         resetChildPos();
         children.forEach(child -> {
             if (!child.isParent() && !(child instanceof GuiCycle))
-                child.setBackground(Settings.getColor("gui.color.background"));
+                child.setBackground(Settings.GUI_COLOR_BACKGROUND.get());
             child.render(matrixStack, tr, mouseX, mouseY, delta);
         });
         if (shouldDrawScrollBar()) {
@@ -127,7 +127,7 @@ public class GuiScroll extends GuiDropdown {
     public boolean mouseScrolled(double x, double y, double scroll) {
         if (hasChildren()) {
             for (var gui : children) {
-                if (!gui.isHidden() && gui.mouseWithinGui(x, y) && gui instanceof GuiScroll) {
+                if (!gui.isHidden() && gui.mouseWithinGui(x, y) && (gui instanceof GuiScroll || gui instanceof GuiVirtualList<?>)) {
                     gui.mouseScrolled(x, y, scroll);
                     return true;
                 }
@@ -211,7 +211,7 @@ public class GuiScroll extends GuiDropdown {
             scrollBoxY = firstChild.getY();
         }
         RenderUtils.drawBox(Colors.BLACK.getAsFloatArray(), new BoxD(new PointD(scrollBoxX, scrollBoxY), 4, scrollBoxHeight), matrixStack);
-        RenderUtils.drawOutline((Settings.getColor("foregroundColor")).getAsFloatArray(), new BoxD(new PointD(scrollBoxX, scrollBoxY), 4, scrollBoxHeight), matrixStack);
+        RenderUtils.drawOutline(Settings.GUI_COLOR_FOREGROUND.get().getAsFloatArray(), new BoxD(new PointD(scrollBoxX, scrollBoxY), 4, scrollBoxHeight), matrixStack);
     }
 
     /**
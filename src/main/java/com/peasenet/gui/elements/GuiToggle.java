@@ -110,8 +110,8 @@ public class GuiToggle extends GuiClick {
         if (isHidden()) return;
         symbol = isOn ? '\u2611' : '\u2610';
         if (renderCallback != null) renderCallback.callback();
-        if (isOn()) setBackground(Settings.getColor("gui.color.enabled"));
-        else setBackground(Settings.getColor("gui.color.background"));
+        if (isOn()) setBackground(Settings.GUI_COLOR_ENABLED.get());
+        else setBackground(Settings.GUI_COLOR_BACKGROUND.get());
         super.render(matrixStack, tr, mouseX, mouseY, delta);
     }
 }
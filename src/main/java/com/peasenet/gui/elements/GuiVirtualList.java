@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.gui.elements;
+
+import com.peasenet.main.Settings;
+import com.peasenet.util.RenderUtils;
+import com.peasenet.util.color.Colors;
+import com.peasenet.util.math.PointD;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.text.Text;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * A dropdown that shows a list of items, no matter how long, with a fixed number of row elements. Only the rows in the
+ * visible window exist; scrolling binds the same rows to other items instead of creating, hiding and moving an
+ * element for every item, so opening and scrolling costs the same for ten items as for thousands.
+ *
+ * @param <T> The type of the items in the list.
+ */
+public class GuiVirtualList<T> extends GuiDropdown {
+
+    /**
+     * The vertical distance between two rows.
+     */
+    private static final int ROW_SPACING = 12;
+
+    /**
+     * The row elements, reused for whichever items are in the visible window.
+     */
+    private final GuiToggle[] rows;
+
+    /**
+     * Gets the title of the row of an item.
+     */
+    private final Function<T, Text> titleOf;
+
+    /**
+     * Gets whether the row of an item is checked.
+     */
+    private final Predicate<T> isOn;
+
+    /**
+     * Called with the item of a row when the row is clicked.
+     */
+    private final Consumer<T> onClick;
+
+    /**
+     * The items of the list.
+     */
+    private List<T> items = List.of();
+
+    /**
+     * The index of the item in the first row.
+     */
+    private int offset = 0;
+
+    /**
+     * The position of this element when the rows were last positioned.
+     */
+    private double laidOutX = Double.NaN, laidOutY = Double.NaN;
+
+    /**
+     * Creates a new virtual list.
+     *
+     * @param width       - The width of the element and of the rows.
+     * @param height      - The height of the element and of the rows.
+     * @param title       - The title of the element.
+     * @param visibleRows - How many rows are shown at once.
+     * @param titleOf     - Gets the title of the row of an item.
+     * @param isOn        - Gets whether the row of an item is checked.
+     * @param onClick     - Called with the item of a row when the row is clicked.
+     */
+    public GuiVirtualList(int width, int height, Text title, int visibleRows, Function<T, Text> titleOf,
+                          Predicate<T> isOn, Consumer<T> onClick) {
+        super(new PointD(0, 0), width, height, title);
+        this.titleOf = titleOf;
+        this.isOn = isOn;
+        this.onClick = onClick;
+        setDirection(Direction.RIGHT);
+        rows = new GuiToggle[visibleRows];
+        for (int i = 0; i < visibleRows; i++) {
+            var row = new GuiToggle(new PointD(0, 0), width, height, Text.empty());
+            var index = i;
+            row.setCallback(() -> clickRow(index));
+            row.hide();
+            rows[i] = row;
+            addElement(row);
+        }
+    }
+
+    /**
+     * Sets the items of the list. The list is read as is, so it should not be changed afterwards.
+     *
+     * @param items - The items.
+     */
+    public void setItems(List<T> items) {
+        this.items = items;
+        offset = Math.max(0, Math.min(offset, items.size() - rows.length));
+        bindRows();
+    }
+
+    @Override
+    public void render(MatrixStack matrixStack, TextRenderer tr, int mouseX, int mouseY, float delta) {
+        if (isHidden()) return;
+        if (isParent()) setBackground(Settings.GUI_COLOR_CATEGORY.get());
+        else setBackground(Settings.GUI_COLOR_BACKGROUND.get());
+        RenderUtils.drawBox(getBackgroundColor().getAsFloatArray(), (int) getX(), (int) getY(), (int) getX2(), (int) getY2() + 1, matrixStack);
+        tr.draw(matrixStack, title, (int) getX() + 2, (int) getY() + 2, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
+        updateSymbol();
+        tr.draw(matrixStack, String.valueOf(symbol), (int) getX2() + symbolOffsetX, (int) getY() + symbolOffsetY, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
+        RenderUtils.drawOutline(Colors.WHITE.getAsFloatArray(), (int) getX(), (int) getY(), (int) getX2(), (int) getY2() + 1, matrixStack);
+        if (!isOpen()) return;
+        if (getX() != laidOutX || getY() != laidOutY) layoutRows();
+        for (var row : rows)
+            row.render(matrixStack, tr, mouseX, mouseY, delta);
+        if (items.size() > rows.length) drawScrollBar(matrixStack);
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double scroll) {
+        if (!isOpen() || isHidden() || !mouseWithinGui(mouseX, mouseY)) return false;
+        var maxOffset = Math.max(0, items.size() - rows.length);
+        var newOffset = Math.max(0, Math.min(maxOffset, offset - (int) Math.signum(scroll)));
+        if (newOffset != offset) {
+            offset = newOffset;
+            bindRows();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button) {
+        if (isHidden()) return false;
+        return super.mouseClicked(mouseX, mouseY, button);
+    }
+
+    @Override
+    protected void toggleMenu() {
+        super.toggleMenu();
+        bindRows();
+    }
+
+    /**
+     * Binds each row to the item it shows, and hides the rows past the end of the list.
+     */
+    private void bindRows() {
+        for (int i = 0; i < rows.length; i++) {
+            var row = rows[i];
+            var index = offset + i;
+            if (!isOpen() || index >= items.size()) {
+                row.hide();
+                continue;
+            }
+            var item = items.get(index);
+            row.setTitle(titleOf.apply(item));
+            row.setState(isOn.test(item));
+            row.show();
+        }
+    }
+
+    /**
+     * Positions the rows next to this element. This only has to happen when this element moves.
+     */
+    private void layoutRows() {
+        laidOutX = getX();
+        laidOutY = getY();
+        for (int i = 0; i < rows.length; i++)
+            rows[i].setPosition(new PointD(getX2() + 2, getY() + (i * ROW_SPACING)));
+    }
+
+    /**
+     * Handles a click on the given row.
+     *
+     * @param row - The index of the row.
+     */
+    private void clickRow(int row) {
+        var index = offset + row;
+        if (index >= items.size()) return;
+        var item = items.get(index);
+        onClick.accept(item);
+        rows[row].setState(isOn.test(item));
+    }
+
+    /**
+     * Draws the scrollbar to the right of the rows, sized and placed by how much of the list is visible.
+     *
+     * @param matrixStack - The matrix stack.
+     */
+    private void drawScrollBar(MatrixStack matrixStack) {
+        var x = (int) rows[0].getX2() + 2;
+        var top = (int) rows[0].getY();
+        var height = rows.length * ROW_SPACING - 2;
+        RenderUtils.drawBox(Colors.BLACK.getAsFloatArray(), x, top, x + 4, top + height, matrixStack);
+        var barTop = top + (int) (height * (offset / (double) items.size()));
+        var barHeight = Math.max(2, (int) (height * (rows.length / (double) items.size())));
+        RenderUtils.drawBox(Colors.WHITE.getAsFloatArray(), x + 1, barTop, x + 3, Math.min(top + height, barTop + barHeight), matrixStack);
+    }
+}
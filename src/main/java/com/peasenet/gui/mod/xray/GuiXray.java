@@ -26,21 +26,16 @@ import com.peasenet.gui.elements.GuiClick;
 import com.peasenet.gui.elements.GuiToggle;
 import com.peasenet.main.GavinsMod;
 import com.peasenet.main.GavinsModClient;
-import com.peasenet.main.Mods;
 import com.peasenet.main.Settings;
+import com.peasenet.mods.render.ModXray;
+import com.peasenet.mods.render.xray.BlockCatalog;
 import com.peasenet.util.RenderUtils;
 import com.peasenet.util.color.Colors;
 import com.peasenet.util.math.PointD;
 import net.minecraft.block.Block;
 import net.minecraft.client.gui.widget.TextFieldWidget;
-import net.minecraft.client.resource.language.I18n;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.text.Text;
-import net.minecraft.util.registry.Registry;
-
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.LinkedHashSet;
 
 /**
  * @author gt3ch1
@@ -50,9 +45,13 @@ import java.util.LinkedHashSet;
 public class GuiXray extends GuiElement {
 
     /**
-     * The list of currently visible blocks.
+     * The catalog of blocks that can be picked, or null while it is still being built.
+     */
+    private BlockCatalog catalog;
+    /**
+     * The catalog indexes of the blocks that match the search, in the order they are shown.
      */
-    private final LinkedHashSet<Block> visibleBlocks = blockList();
+    private int[] matches = new int[0];
     /**
      * The background gui element.
      */
@@ -113,17 +112,6 @@ public class GuiXray extends GuiElement {
         super(Text.translatable("gavinsmod.mod.render.xray"));
     }
 
-    /**
-     * Gets the list of all blocks that do not translate to "air".
-     *
-     * @return The list of all blocks.
-     */
-    private static LinkedHashSet<Block> blockList() {
-        var list = new ArrayList<Block>();
-        Registry.BLOCK.stream().sorted(Comparator.comparing(a -> I18n.translate(a.getTranslationKey()))).filter(b -> !b.asItem().getTranslationKey().contains("air")).forEach(list::add);
-        return new LinkedHashSet<>(list);
-    }
-
     @Override
     public void init() {
         int screenWidth = GavinsModClient.getMinecraftClient().getWindow().getScaledWidth();
@@ -137,7 +125,7 @@ public class GuiXray extends GuiElement {
         int blocksPerColumn = (height / 18);
         blocksPerRow = width / 18;
         blocksPerPage = blocksPerRow * blocksPerColumn;
-        pageCount = (int) Math.ceil((double) blockList().size() / blocksPerPage);
+        catalog = BlockCatalog.get();
         parent = GavinsMod.guiSettings;
         search = new TextFieldWidget(textRenderer, x + width / 2 - 75, y - 15, 150, 12, Text.empty()) {
             @Override
@@ -204,22 +192,27 @@ public class GuiXray extends GuiElement {
 
     @Override
     public void render(MatrixStack matrixStack, int mouseX, int mouseY, float delta) {
+        if (catalog == null) {
+            catalog = BlockCatalog.get();
+            if (catalog != null) updateBlockList();
+        }
+        var first = page * blocksPerPage;
         for (int i = 0; i < blocksPerPage; i++) {
-            if (i > visibleBlocks.size() - 1) break;
-            Block block = visibleBlocks.toArray(new Block[0])[i];
-            if (block == null) return;
-            var stack = block.asItem().getDefaultStack();
+            if (first + i >= matches.length) break;
+            var entry = matches[first + i];
+            var block = catalog.getBlock(entry);
+            var stack = catalog.getStack(entry);
             var blockX = (i % (blocksPerRow)) * 18 + x + 2;
             var blockY = (i / blocksPerRow) * 18 + y + 5;
 
             if (Settings.isXrayBlock(block)) {
-                fill(matrixStack, blockX, blockY, blockX + 16, blockY + 16, Settings.getColor("gui.color.enabled").getAsInt(0.5f));
+                fill(matrixStack, blockX, blockY, blockX + 16, blockY + 16, Settings.GUI_COLOR_ENABLED.get().getAsInt(0.5f));
                 RenderUtils.drawOutline(Colors.WHITE.getAsFloatArray(), blockX, blockY, blockX + 16, blockY + 16, matrixStack);
             }
             if (mouseX > blockX && mouseX < blockX + 16 && mouseY > blockY && mouseY < blockY + 16) {
-                fill(matrixStack, blockX, blockY, blockX + 16, blockY + 16, Settings.getColor("gui.color.foreground").getAsInt(0.5f));
+                fill(matrixStack, blockX, blockY, blockX + 16, blockY + 16, Settings.GUI_COLOR_FOREGROUND.get().getAsInt(0.5f));
                 RenderUtils.drawOutline(Colors.WHITE.getAsFloatArray(), blockX, blockY, blockX + 16, blockY + 16, matrixStack);
-                renderTooltip(matrixStack, Text.translatable(stack.getTranslationKey()), mouseX, mouseY);
+                renderTooltip(matrixStack, Text.literal(catalog.getName(entry)), mouseX, mouseY);
             }
             client.getItemRenderer().renderGuiItemIcon(stack, blockX, blockY);
         }
@@ -231,6 +224,8 @@ public class GuiXray extends GuiElement {
         enabledOnly.render(matrixStack, textRenderer, mouseX, mouseY, delta);
         textRenderer.draw(matrixStack, Text.literal(String.valueOf('\u25c0')), x + width / 2 - 86, y - 13, Colors.WHITE.getAsInt());
         textRenderer.draw(matrixStack, Text.literal(String.valueOf('\u25b6')), x + width / 2 + 80, y - 13, Colors.WHITE.getAsInt());
+        if (catalog == null)
+            textRenderer.draw(matrixStack, Text.literal("Loading blocks..."), x + 4, y + 6, Colors.WHITE.getAsInt());
         super.render(matrixStack, mouseX, mouseY, delta);
     }
 
@@ -257,37 +252,31 @@ public class GuiXray extends GuiElement {
         if (!(mouseX > x && mouseX < x + width && mouseY > y && mouseY < y + height)) return false;
         search.setTextFieldFocused(false);
 
-        int blockIndex = (int) ((mouseY - y) / 19) * blocksPerRow + (int) ((mouseX - x) / 18);
-        if (blockIndex > visibleBlocks.size() - 1) return false;
+        // the same layout as #render uses.
+        int column = (int) ((mouseX - x - 2) / 18);
+        int row = (int) ((mouseY - y - 5) / 18);
+        if (mouseX < x + 2 || mouseY < y + 5 || column >= blocksPerRow) return false;
+        int blockIndex = page * blocksPerPage + row * blocksPerRow + column;
+        if (row * blocksPerRow + column >= blocksPerPage || blockIndex >= matches.length || button != 0) return false;
 
-        Block block = visibleBlocks.toArray(new Block[0])[blockIndex];
-        if (block == null || button != 0) return false;
+        Block block = catalog.getBlock(matches[blockIndex]);
+        var previous = Settings.getXrayBlockTable();
         if (Settings.isXrayBlock(block)) Settings.removeXrayBlock(block);
         else Settings.addXrayBlock(block);
-        Mods.getMod("xray").reload();
+        ModXray.onXrayBlocksChanged(previous);
+        // a block that was turned off no longer passes the enabled only filter.
+        if (enabledOnly.isOn()) updateBlockList();
 
         return super.mouseClicked(mouseX, mouseY, button);
     }
 
     /**
-     * Updates the list of currently visible blocks to reflect that of the search field, and the current page.
+     * Updates the list of blocks that match the search field, and the number of pages.
      */
     private void updateBlockList() {
-        var searchText = search.getText().toLowerCase();
-        visibleBlocks.clear();
-        var tmpBlocks = new ArrayList<Block>();
-        blockList().stream().filter(block -> block.getTranslationKey().toLowerCase().contains(searchText)).forEach(tmpBlocks::add);
-        // get blocks in block list that are within the page.
-        var enabled = enabledOnly.isOn();
-        if (enabled) tmpBlocks = new ArrayList<>(tmpBlocks.stream().filter(Settings::isXrayBlock).toList());
-        pageCount = (int) Math.ceil((double) tmpBlocks.size() / blocksPerPage);
-        for (int i = page * blocksPerPage; i < page * blocksPerPage + blocksPerPage; i++) {
-            if (tmpBlocks.isEmpty() || i > tmpBlocks.size() - 1) break;
-            var block = tmpBlocks.get(i);
-            if (block != null && block.getTranslationKey().toLowerCase().contains(searchText)) {
-                if (enabled && !Settings.isXrayBlock(block)) continue;
-                visibleBlocks.add(block);
-            }
-        }
+        if (catalog == null) return;
+        matches = catalog.search(search.getText(), enabledOnly.isOn() ? Settings::isXrayBlock : null);
+        pageCount = (int) Math.ceil((double) matches.length / blocksPerPage);
+        if (page >= pageCount) page = Math.max(0, pageCount - 1);
     }
 }
@@ -30,7 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Stream;
 
 
@@ -62,14 +62,13 @@ public class GavinsMod implements ModInitializer {
     public static GuiSettings guiSettings;
 
     /**
-     * Gets whether the given mod is enabled.
+     * Gets whether the given mod is enabled. Safe to call from any thread.
      *
      * @param mod - The mod type to check.
      * @return Whether the mod is enabled.
      */
-    //TODO: Make this into a String based check and not Mod.
     public static boolean isEnabled(Type mod) {
-        return Mods.getMod(mod.getChatCommand()).isActive();
+        return Mods.isEnabled(mod);
     }
 
     /**
@@ -79,8 +78,7 @@ public class GavinsMod implements ModInitializer {
      * @param enabled - Whether the mod should be enabled.
      */
     public static void setEnabled(Type mod, boolean enabled) {
-        // find mod via stream and set it to enabled.
-        var theMod = Mods.getMods().stream().filter(m -> m.getType() == mod).findFirst().get();
+        var theMod = Mods.getMod(mod);
         if (enabled) theMod.activate();
         else theMod.deactivate();
     }
@@ -91,9 +89,18 @@ public class GavinsMod implements ModInitializer {
      * @param category The category to get the mods from.
      * @return The mods in the given category.
      */
-    public static ArrayList<Mod> getModsInCategory(Type.Category category) {
-        // use stream to filter by category and sort by mod name
-        return Mods.getMods().stream().filter(mod -> mod.getCategory() == category).sorted(Comparator.comparing(Mod::getName)).collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    public static List<Mod> getModsInCategory(Type.Category category) {
+        return Mods.getMods(category);
+    }
+
+    /**
+     * Gets whether any mod in the given category is enabled.
+     *
+     * @param category - The category to check.
+     * @return Whether any mod in the category is enabled.
+     */
+    public static boolean isAnyEnabled(Type.Category category) {
+        return Mods.getActiveCount(category) > 0;
     }
 
     /**
@@ -102,7 +109,7 @@ public class GavinsMod implements ModInitializer {
      * @return A list of mods used for the text overlay.
      */
     public static Stream<Mod> getModsForTextOverlay() {
-        return Mods.getMods().stream().filter(mod -> mod.isActive() && mod.getCategory() != Type.Category.GUI && mod.getType() != Type.MOD_GUI_TEXT_OVERLAY).sorted(Comparator.comparing(Mod::getName));
+        return Mods.getMods().stream().filter(mod -> mod.isActive() && mod.getCategory() != Type.Category.GUI && mod.getType() != Type.MOD_GUI_TEXT_OVERLAY);
     }
 
     @Override
@@ -20,10 +20,17 @@
 
 package com.peasenet.main;
 
+import com.peasenet.event.Events;
 import com.peasenet.mixinterface.IMinecraftClient;
 import com.peasenet.mods.Mod;
+import com.peasenet.mods.Type;
+import com.peasenet.mods.render.xray.BlockCatalog;
+import com.peasenet.mods.render.xray.XrayRemesher;
 import com.peasenet.util.RenderUtils;
+import com.peasenet.util.world.EntityIndex;
+import com.peasenet.util.world.WaypointStore;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.minecraft.client.MinecraftClient;
@@ -59,26 +66,35 @@ public class GavinsModClient implements ClientModInitializer {
     public void onInitializeClient() {
         GavinsMod.LOGGER.info("GavinsMod keybinding initialized");
         ClientTickEvents.START_CLIENT_TICK.register((client) -> {
-            if (getPlayer() == null || getMinecraftClient() == null) return;
-            for (Mod m : Mods.getMods()) {
-                m.checkKeybinding();
-                if (m.isActive() || m.isDeactivating()) m.onTick();
+            if (getPlayer() == null || getMinecraftClient() == null) {
+                EntityIndex.rebuild(null, null);
+                WaypointStore.setWorld(null);
+                return;
             }
+            EntityIndex.rebuild(getMinecraftClient().getWorld(), getPlayer());
+            WaypointStore.setWorld(getMinecraftClient().getWorld());
+            for (Mod m : Mods.getMods())
+                m.checkKeybinding();
+            Events.fireTick();
             checkAutoFullBright();
         });
+        WorldRenderEvents.START.register((context) -> XrayRemesher.onFrame());
         WorldRenderEvents.AFTER_ENTITIES.register(RenderUtils::afterEntities);
+        ClientLifecycleEvents.CLIENT_STARTED.register((client) -> BlockCatalog.buildAsync());
+        ClientLifecycleEvents.CLIENT_STOPPING.register((client) -> Settings.flush());
     }
 
     /**
      * Checks if the auto full bright feature is enabled.
      */
     private void checkAutoFullBright() {
-        if (!Settings.getBool("render.fullbright.autofullbright")) return;
+        if (!Settings.RENDER_FULLBRIGHT_AUTOFULLBRIGHT.get()) return;
         var skyBrightness = getMinecraftClient().getWorld().getLightLevel(LightType.SKY, getPlayer().getBlockPos().up());
         var blockBrightness = getMinecraftClient().getWorld().getLightLevel(LightType.BLOCK, getPlayer().getBlockPos().up());
         var currTime = getMinecraftClient().getWorld().getTimeOfDay();
         var shouldBeFullBright = (currTime >= 13000 || currTime <= 100 || skyBrightness <= 2) && blockBrightness <= 2;
-        if (shouldBeFullBright && !Mods.getMod("fullbright").isActive()) Mods.getMod("fullbright").activate();
-        else if (Mods.getMod("fullbright").isActive() && !shouldBeFullBright) Mods.getMod("fullbright").deactivate();
+        var fullBright = Mods.getMod(Type.FULL_BRIGHT);
+        if (shouldBeFullBright && !fullBright.isActive()) fullBright.activate();
+        else if (fullBright.isActive() && !shouldBeFullBright) fullBright.deactivate();
     }
 }
@@ -21,6 +21,7 @@
 package com.peasenet.main;
 
 import com.peasenet.mods.Mod;
+import com.peasenet.mods.Type;
 import com.peasenet.mods.combat.ModAutoAttack;
 import com.peasenet.mods.combat.ModAutoCrit;
 import com.peasenet.mods.combat.ModKillAura;
@@ -32,6 +33,7 @@ import com.peasenet.mods.gui.ModGui;
 import com.peasenet.mods.gui.ModGuiSettings;
 import com.peasenet.mods.misc.ModFpsCounter;
 import com.peasenet.mods.misc.ModGuiTextOverlay;
+import com.peasenet.mods.misc.ModProfiler;
 import com.peasenet.mods.movement.*;
 import com.peasenet.mods.render.*;
 import com.peasenet.mods.tracer.ModChestTracer;
@@ -40,15 +42,53 @@ import com.peasenet.mods.tracer.ModEntityPlayerTracer;
 import com.peasenet.mods.tracer.ModMobTracer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * A placeholder class that initializes all the mods, and contains a few methods for adding/getting to that list.
  */
 public class Mods {
+    /**
+     * The mods, by their chat command.
+     */
     private static final HashMap<String, Mod> modMap = new HashMap<>();
 
+    /**
+     * The mods, by their type.
+     */
+    private static final EnumMap<Type, Mod> typeMap = new EnumMap<>(Type.class);
+
+    /**
+     * The mods of each category, sorted by name.
+     */
+    private static final EnumMap<Type.Category, List<Mod>> categoryMap = new EnumMap<>(Type.Category.class);
+
+    /**
+     * All mods, sorted by name.
+     */
+    private static List<Mod> sortedMods = List.of();
+
+    /**
+     * The number of enabled mods in each category, indexed by the ordinal of the category.
+     */
+    private static final AtomicIntegerArray activeCounts = new AtomicIntegerArray(Type.Category.values().length);
+
+    /**
+     * The enabled mods, as a bitmask with the bit of each enabled type (by ordinal) set. Republished as a whole
+     * whenever a mod is enabled or disabled, so it is safe to read from any thread, ie, chunk builder threads.
+     */
+    private static volatile long enabledMask = 0L;
+
+    static {
+        if (Type.values().length > Long.SIZE)
+            throw new IllegalStateException("Too many mod types for the enabled mask: " + Type.values().length);
+    }
+
     public Mods() {
         // MOVEMENT
         new ModFly();
@@ -85,21 +125,27 @@ public class Mods {
         // MISC
         new ModGuiTextOverlay();
         new ModFpsCounter();
+        new ModProfiler();
         new ModWaypoint();
     }
 
     /**
-     * Gets the list of mods.
+     * Gets the list of mods, sorted by name. The list can not be modified.
      *
      * @return The list of mods.
      */
-    public static ArrayList<Mod> getMods() {
-        // get all values from the map and add them to the list
-        var values = modMap.values();
-        // sort the list by name
-        var list = new ArrayList<>(values);
-        list.sort(Comparator.comparing(Mod::getName));
-        return list;
+    public static List<Mod> getMods() {
+        return sortedMods;
+    }
+
+    /**
+     * Gets the mods in the given category, sorted by name. The list can not be modified.
+     *
+     * @param category - The category.
+     * @return The mods in the category.
+     */
+    public static List<Mod> getMods(Type.Category category) {
+        return categoryMap.getOrDefault(category, List.of());
     }
 
     /**
@@ -112,6 +158,16 @@ public class Mods {
         return modMap.get(name);
     }
 
+    /**
+     * Gets a mod from the given type.
+     *
+     * @param type - The type of the mod.
+     * @return The mod with the given type.
+     */
+    public static Mod getMod(Type type) {
+        return typeMap.get(type);
+    }
+
     /**
      * Adds a mod to the mod hashmap using the mod chat command as the key, and the mod as the value.
      *
@@ -119,5 +175,44 @@ public class Mods {
      */
     public static void addMod(Mod m) {
         modMap.put(m.getChatCommand(), m);
+        typeMap.put(m.getType(), m);
+        var sorted = new ArrayList<>(typeMap.values());
+        sorted.sort(Comparator.comparing(Mod::getName));
+        sortedMods = Collections.unmodifiableList(sorted);
+        categoryMap.put(m.getCategory(), sorted.stream().filter(mod -> mod.getCategory() == m.getCategory()).toList());
+    }
+
+    /**
+     * Gets the number of enabled mods in the given category.
+     *
+     * @param category - The category.
+     * @return The number of enabled mods in the category.
+     */
+    public static int getActiveCount(Type.Category category) {
+        return activeCounts.get(category.ordinal());
+    }
+
+    /**
+     * Updates the number of enabled mods in the category of the given mod, and the enabled mask. Called by the mod whenever it is enabled
+     * or disabled.
+     *
+     * @param m       - The mod that changed.
+     * @param enabled - Whether the mod is now enabled.
+     */
+    public static synchronized void onEnabledChanged(Mod m, boolean enabled) {
+        activeCounts.addAndGet(m.getCategory().ordinal(), enabled ? 1 : -1);
+        var bit = 1L << m.getType().ordinal();
+        enabledMask = enabled ? enabledMask | bit : enabledMask & ~bit;
+    }
+
+    /**
+     * Gets whether the mod of the given type is enabled. This only tests a bit of an immutable snapshot, so it is
+     * safe and cheap to call from any thread.
+     *
+     * @param type - The type of the mod.
+     * @return Whether the mod is enabled.
+     */
+    public static boolean isEnabled(Type type) {
+        return (enabledMask & (1L << type.ordinal())) != 0;
     }
 }
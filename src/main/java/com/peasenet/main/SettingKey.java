@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.main;
+
+/**
+ * @author gt3ch1
+ * @version 7/8/2022
+ * A typed key into the settings. The value of the key is decoded once when the settings are loaded or changed,
+ * so reading it with #get is a plain field load.
+ *
+ * @param <T> The type of the value stored under this key.
+ */
+public final class SettingKey<T> {
+
+    /**
+     * The name of the setting in the settings file (ie, "esp.chest.color").
+     */
+    private final String key;
+
+    /**
+     * The class of the value, used to decode the raw value from the settings file.
+     */
+    private final Class<T> type;
+
+    /**
+     * The value used when the settings file does not contain a usable value.
+     */
+    private final T defaultValue;
+
+    /**
+     * The current, already decoded, value of the setting.
+     */
+    private volatile T value;
+
+    /**
+     * Creates a new typed settings key.
+     *
+     * @param key          - The name of the setting.
+     * @param type         - The class of the value.
+     * @param defaultValue - The default value of the setting.
+     */
+    SettingKey(String key, Class<T> type, T defaultValue) {
+        this.key = key;
+        this.type = type;
+        this.defaultValue = defaultValue;
+        value = defaultValue;
+    }
+
+    /**
+     * Gets the current value of this setting.
+     *
+     * @return The current value.
+     */
+    public T get() {
+        return value;
+    }
+
+    /**
+     * Gets the name of this setting.
+     *
+     * @return The name of this setting.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the class of the value of this setting.
+     *
+     * @return The class of the value.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the default value of this setting.
+     *
+     * @return The default value.
+     */
+    public T getDefault() {
+        return defaultValue;
+    }
+
+    /**
+     * Sets the decoded value of this setting. Only the settings class should call this, as it also owns the
+     * raw value that gets written to disk.
+     *
+     * @param value - The decoded value, or null to use the default.
+     */
+    void set(T value) {
+        this.value = value == null ? defaultValue : value;
+    }
+}
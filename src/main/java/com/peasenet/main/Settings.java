@@ -22,11 +22,16 @@ package com.peasenet.main;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.ToNumberPolicy;
 import com.google.gson.reflect.TypeToken;
 import com.peasenet.mods.render.waypoints.Waypoint;
+import com.peasenet.mods.render.xray.XrayBlockTable;
 import com.peasenet.util.color.Color;
 import com.peasenet.util.color.Colors;
+import com.peasenet.util.io.AsyncFileWriter;
+import com.peasenet.util.jfr.JfrEvents;
+import com.peasenet.util.world.WaypointStore;
 import net.minecraft.block.Block;
 import net.minecraft.block.OreBlock;
 import net.minecraft.util.registry.Registry;
@@ -61,45 +66,153 @@ public class Settings {
      */
     private static final HashMap<String, Object> default_settings = new HashMap<>();
 
+    /**
+     * The typed keys of all settings that have one, by name.
+     */
+    private static final HashMap<String, SettingKey<?>> keys = new HashMap<>();
+
+    /**
+     * The gson instance used to decode raw values into their typed values.
+     */
+    private static final Gson GSON = new GsonBuilder().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
+
+    /**
+     * The gson instance used to write the settings file.
+     */
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
+
+    /**
+     * The compiled lookup of the blocks that are visible with xray. Rebuilt whenever the list of blocks changes.
+     */
+    private static volatile XrayBlockTable xrayBlockTable = XrayBlockTable.EMPTY;
+
+    /**
+     * How long to wait for more changes before writing the settings file, in milliseconds.
+     */
+    private static final long SAVE_DEBOUNCE_MILLIS = 500;
+
+    /**
+     * The writer used to save the settings file in the background.
+     */
+    private static AsyncFileWriter writer;
+
+    public static final SettingKey<Color> ESP_MOB_HOSTILE_COLOR = register("esp.mob.hostile.color", Color.class, Colors.RED);
+    public static final SettingKey<Color> ESP_MOB_PEACEFUL_COLOR = register("esp.mob.peaceful.color", Color.class, Colors.GREEN);
+    public static final SettingKey<Color> ESP_PLAYER_COLOR = register("esp.player.color", Color.class, Colors.YELLOW);
+    public static final SettingKey<Color> ESP_CHEST_COLOR = register("esp.chest.color", Color.class, Colors.PURPLE);
+    public static final SettingKey<Color> ESP_ITEM_COLOR = register("esp.item.color", Color.class, Colors.CYAN);
+
+    public static final SettingKey<Color> TRACER_MOB_HOSTILE_COLOR = register("tracer.mob.hostile.color", Color.class, Colors.RED);
+    public static final SettingKey<Color> TRACER_MOB_PEACEFUL_COLOR = register("tracer.mob.peaceful.color", Color.class, Colors.GREEN);
+    public static final SettingKey<Color> TRACER_PLAYER_COLOR = register("tracer.player.color", Color.class, Colors.YELLOW);
+    public static final SettingKey<Color> TRACER_CHEST_COLOR = register("tracer.chest.color", Color.class, Colors.PURPLE);
+    public static final SettingKey<Color> TRACER_ITEM_COLOR = register("tracer.item.color", Color.class, Colors.CYAN);
+
+    public static final SettingKey<Boolean> TRACER_OFFSCREEN = register("tracer.offscreen", Boolean.class, false);
+
+    public static final SettingKey<Color> GUI_COLOR_BACKGROUND = register("gui.color.background", Color.class, Colors.INDIGO);
+    public static final SettingKey<Color> GUI_COLOR_FOREGROUND = register("gui.color.foreground", Color.class, Colors.WHITE);
+    public static final SettingKey<Color> GUI_COLOR_CATEGORY = register("gui.color.category", Color.class, Colors.DARK_SPRING_GREEN);
+    public static final SettingKey<Color> GUI_COLOR_ENABLED = register("gui.color.enabled", Color.class, Colors.MEDIUM_SEA_GREEN);
+    public static final SettingKey<Boolean> GUI_SOUND = register("gui.sound", Boolean.class, false);
+
+    public static final SettingKey<Boolean> MISC_FPS_COLOR_ENABLED = register("misc.fps.color.enabled", Boolean.class, false);
+    public static final SettingKey<Color> MISC_FPS_COLOR_SLOW = register("misc.fps.color.slow", Color.class, Colors.RED);
+    public static final SettingKey<Color> MISC_FPS_COLOR_OK = register("misc.fps.color.ok", Color.class, Colors.YELLOW);
+    public static final SettingKey<Color> MISC_FPS_COLOR_FAST = register("misc.fps.color.fast", Color.class, Colors.GREEN);
+    public static final SettingKey<Boolean> MISC_FPS_DETAILED = register("misc.fps.detailed", Boolean.class, false);
+
+    public static final SettingKey<Boolean> MISC_MESSAGES = register("misc.messages", Boolean.class, true);
+    public static final SettingKey<Boolean> MISC_JFR = register("misc.jfr", Boolean.class, false);
+
+    public static final SettingKey<Boolean> RENDER_FULLBRIGHT_GAMMAFADE = register("render.fullbright.gammafade", Boolean.class, true);
+    public static final SettingKey<Boolean> RENDER_FULLBRIGHT_AUTOFULLBRIGHT = register("render.fullbright.autofullbright", Boolean.class, false);
+
+    public static final SettingKey<Integer> COMBAT_KILLAURA_PRIORITY = register("combat.killaura.priority", Integer.class, 0);
+    public static final SettingKey<Integer> COMBAT_KILLAURA_TARGETS = register("combat.killaura.targets", Integer.class, 0);
+
+    public static final SettingKey<Boolean> XRAY_DISABLE_CULLING = register("xray.disable_culling", Boolean.class, true);
+
     /**
      * Initializes and loads the configuration file. If the file does not exist, it will be created.
      * If the load fails, the default settings will be used.
      */
     private Settings() {
-        default_settings.put("esp.mob.hostile.color", (Colors.RED));
-        default_settings.put("esp.mob.peaceful.color", (Colors.GREEN));
-        default_settings.put("esp.player.color", (Colors.YELLOW));
-        default_settings.put("esp.chest.color", (Colors.PURPLE));
-        default_settings.put("esp.item.color", (Colors.CYAN));
-
-        default_settings.put("tracer.mob.hostile.color", (Colors.RED));
-        default_settings.put("tracer.mob.peaceful.color", (Colors.GREEN));
-        default_settings.put("tracer.player.color", (Colors.YELLOW));
-        default_settings.put("tracer.chest.color", (Colors.PURPLE));
-        default_settings.put("tracer.item.color", (Colors.CYAN));
-
-        default_settings.put("gui.color.background", (Colors.INDIGO));
-        default_settings.put("gui.color.foreground", (Colors.WHITE));
-        default_settings.put("gui.color.category", (Colors.DARK_SPRING_GREEN));
-        default_settings.put("gui.color.enabled", (Colors.MEDIUM_SEA_GREEN));
-        default_settings.put("gui.sound", false);
-
-        default_settings.put("misc.fps.color.enabled", false);
-        default_settings.put("misc.fps.color.slow", (Colors.RED));
-        default_settings.put("misc.fps.color.ok", (Colors.YELLOW));
-        default_settings.put("misc.fps.color.fast", (Colors.GREEN));
-
-        default_settings.put("misc.messages", true);
-
-        default_settings.put("render.fullbright.gammafade", true);
-        default_settings.put("render.fullbright.autofullbright", false);
-
-        default_settings.put("xray.disable_culling", true);
         default_settings.put("xray.blocks", new ArrayList<String>());
-        default_settings.put("waypoint.locations", new ArrayList<Waypoint>());
         load();
     }
 
+    /**
+     * Registers a new typed setting with the given default value.
+     *
+     * @param key          - The name of the setting.
+     * @param type         - The class of the value.
+     * @param defaultValue - The default value.
+     * @param <T>          - The type of the value.
+     * @return The typed key of the setting.
+     */
+    private static <T> SettingKey<T> register(String key, Class<T> type, T defaultValue) {
+        var settingKey = new SettingKey<>(key, type, defaultValue);
+        keys.put(key, settingKey);
+        default_settings.put(key, defaultValue);
+        return settingKey;
+    }
+
+    /**
+     * Decodes the raw value of the given key into its typed value.
+     *
+     * @param key - The key to decode.
+     * @param <T> - The type of the value.
+     */
+    private static <T> void decode(SettingKey<T> key) {
+        var raw = settings.get(key.getKey());
+        if (raw == null || key.getType().isInstance(raw)) {
+            key.set(key.getType().cast(raw));
+            return;
+        }
+        try {
+            key.set(GSON.fromJson(GSON.toJsonTree(raw), key.getType()));
+        } catch (JsonParseException e) {
+            GavinsMod.LOGGER.error("Invalid value for setting " + key.getKey() + ", using the default.");
+            key.set(null);
+        }
+    }
+
+    /**
+     * Decodes the raw value of the setting with the given name, if it has a typed key.
+     *
+     * @param key - The name of the setting.
+     */
+    private static void decodeByName(String key) {
+        if (key.equals("xray.blocks")) rebuildXrayBlockTable();
+        var settingKey = keys.get(key);
+        if (settingKey != null) decode(settingKey);
+    }
+
+    /**
+     * Decodes all typed settings from their raw values.
+     */
+    private static void decodeAll() {
+        keys.values().forEach(Settings::decode);
+        rebuildXrayBlockTable();
+    }
+
+    /**
+     * Rebuilds the xray block lookup from the current list of xray blocks.
+     */
+    private static void rebuildXrayBlockTable() {
+        xrayBlockTable = XrayBlockTable.of(getXrayBlocks());
+    }
+
+    /**
+     * Gets the compiled lookup of the blocks that are visible with xray. This is safe to call from any thread.
+     *
+     * @return The xray block lookup.
+     */
+    public static XrayBlockTable getXrayBlockTable() {
+        return xrayBlockTable;
+    }
+
     /**
      * Initializes the settings.
      */
@@ -108,24 +221,30 @@ public class Settings {
     }
 
     /**
-     * Saves the current settings to mods/gavinsmod/settings.json
+     * Saves the current settings to mods/gavinsmod/settings.json. The settings are copied right away, but the file
+     * is written in the background, and saves that happen shortly after each other are combined into one write.
      */
     public static void save() {
-        // open the mods folder
-        var cfgFile = getFilePath();
-        // ensure the settings file exists
-        ensureCfgCreated(cfgFile);
-        var json = new GsonBuilder().setPrettyPrinting().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
-        var map = new HashMap<>(settings);
-        try {
-            var writer = Files.newBufferedWriter(Paths.get(cfgFile));
-            json.toJson(map, writer);
-            writer.close();
-        } catch (Exception e) {
-            GavinsMod.LOGGER.error("Error writing settings to file.");
-            GavinsMod.LOGGER.error(e.getMessage());
-        }
-        load();
+        var snapshot = PRETTY_GSON.toJsonTree(settings);
+        getWriter().schedule(writer -> PRETTY_GSON.toJson(snapshot, writer));
+    }
+
+    /**
+     * Writes any settings and waypoint changes that have not been written yet, and waits for the writes to finish.
+     */
+    public static void flush() {
+        if (writer != null) writer.flush();
+        WaypointStore.flush();
+    }
+
+    /**
+     * Gets the writer used to save the settings file, creating it if needed.
+     *
+     * @return The settings file writer.
+     */
+    private static synchronized AsyncFileWriter getWriter() {
+        if (writer == null) writer = new AsyncFileWriter(Path.of(getFilePath()), SAVE_DEBOUNCE_MILLIS);
+        return writer;
     }
 
     /**
@@ -170,12 +289,17 @@ public class Settings {
         var cfgFile = getFilePath();
         // ensure the settings file exists
         ensureCfgCreated(cfgFile);
-        Gson gson = new GsonBuilder().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
-        try {
-            var map = gson.fromJson(new FileReader(cfgFile), HashMap.class);
+        var event = JfrEvents.beginFileIo(Path.of(cfgFile).getFileName().toString(), "read");
+        try (var reader = new FileReader(cfgFile)) {
+            var map = GSON.fromJson(reader, HashMap.class);
+            openWaypoints(map.get("waypoint.locations"));
             default_settings.forEach((k, _v) -> settings.put(k, map.get(k)));
+            decodeAll();
+            if (event != null) event.bytes = new File(cfgFile).length();
+            JfrEvents.commit(event);
         } catch (Exception e) {
             GavinsMod.LOGGER.error("Error reading settings from file. Saving defaults.");
+            openWaypoints(null);
             // rename settings file to settings.bak
             var bakFile = cfgFile + ".bak";
             int bakCount = 1;
@@ -206,12 +330,21 @@ public class Settings {
      * @return The boolean value of the setting.
      */
     public static boolean getBool(String key) {
-        if (!settings.containsKey(key)) return false;
-        if (settings.get(key) == null) {
-            settings.put(key, false);
-            return false;
-        }
-        return (boolean) settings.get(key);
+        var settingKey = keys.get(key);
+        if (settingKey == null || !(settingKey.get() instanceof Boolean value)) return false;
+        return value;
+    }
+
+    /**
+     * Gets the integer value of the given setting.
+     *
+     * @param key - The key of the setting.
+     * @return The integer value of the setting, or 0 if it is not an integer setting.
+     */
+    public static int getInt(String key) {
+        var settingKey = keys.get(key);
+        if (settingKey == null || !(settingKey.get() instanceof Integer value)) return 0;
+        return value;
     }
 
     /**
@@ -221,12 +354,9 @@ public class Settings {
      * @return The color.
      */
     public static Color getColor(String key) {
-        if (!settings.containsKey(key)) return Colors.WHITE;
-        Gson gson = new Gson();
-        Type colorListType = new TypeToken<Color>() {
-        }.getType();
-        Color c = gson.fromJson(settings.get(key).toString(), colorListType);
-        return c;
+        var settingKey = keys.get(key);
+        if (settingKey == null || !(settingKey.get() instanceof Color color)) return Colors.WHITE;
+        return color;
     }
 
     /**
@@ -235,6 +365,7 @@ public class Settings {
     public static void loadDefault() {
         loadDefaultXrayBlocks();
         settings.putAll(default_settings);
+        decodeAll();
         save();
     }
 
@@ -256,6 +387,7 @@ public class Settings {
         var currList = getXrayBlocks();
         currList.add(b.toString());
         settings.put("xray.blocks", currList);
+        rebuildXrayBlockTable();
         save();
     }
 
@@ -286,6 +418,7 @@ public class Settings {
         var currList = getXrayBlocks();
         currList.remove(b.toString());
         settings.put("xray.blocks", currList);
+        rebuildXrayBlockTable();
         save();
     }
 
@@ -296,10 +429,7 @@ public class Settings {
      * @return Whether the block is in the list.
      */
     public static boolean isXrayBlock(Block b) {
-        var currList = getXrayBlocks();
-
-        var isInList = currList.contains(b.toString());
-        return isInList;
+        return xrayBlockTable.contains(b);
     }
 
     /**
@@ -308,13 +438,8 @@ public class Settings {
      * @param w - The waypoint to add.
      */
     public static void addWaypoint(Waypoint w) {
-        var currList = getWaypoints();
-        if (currList == null) currList = new ArrayList<>();
-        currList.removeIf(wp -> wp.equals(w));
         w.setName(w.getName().replace(' ', '_'));
-        currList.add(w);
-        settings.put("waypoint.locations", currList);
-        save();
+        WaypointStore.add(w);
     }
 
     /**
@@ -323,25 +448,39 @@ public class Settings {
      * @param w - The waypoint to remove.
      */
     public static void deleteWaypoint(Waypoint w) {
-        var currList = getWaypoints();
-        if (currList == null) currList = new ArrayList<>();
-        // remove from currList where the waypoint is the same as w
-        currList.removeIf(wp -> wp.equals(w));
-        settings.put("waypoint.locations", currList);
-        save();
+        WaypointStore.remove(w);
     }
 
     /**
-     * Gets the list of waypoints.
+     * Gets the list of waypoints of every server and dimension. The waypoints of the current world are cheaper to get
+     * from WaypointStore#getSnapshot.
      *
      * @return The list of waypoints.
      */
     public static ArrayList<Waypoint> getWaypoints() {
+        return WaypointStore.getAll();
+    }
+
+    /**
+     * Loads the waypoints from their own files, next to the settings file. Waypoints used to be saved in the settings
+     * file, so those are moved over the first time.
+     *
+     * @param legacy - The raw list of waypoints from the settings file, or null if there is none.
+     */
+    private static void openWaypoints(Object legacy) {
+        WaypointStore.open(Path.of(getFilePath()).getParent(), decodeWaypoints(legacy));
+    }
 
-        Gson gson = new Gson();
+    /**
+     * Decodes a raw list of waypoints from the settings file.
+     *
+     * @param raw - The raw list of waypoints.
+     * @return The decoded waypoints.
+     */
+    private static ArrayList<Waypoint> decodeWaypoints(Object raw) {
         Type waypointType = new TypeToken<ArrayList<Waypoint>>() {
         }.getType();
-        ArrayList<Waypoint> waypoints = gson.fromJson(settings.get("waypoint.locations").toString(), waypointType);
+        ArrayList<Waypoint> waypoints = GSON.fromJson(GSON.toJsonTree(raw), waypointType);
         if (waypoints == null)
             return new ArrayList<>();
         return waypoints;
@@ -355,6 +494,7 @@ public class Settings {
      */
     public static void setBool(String key, boolean value) {
         settings.put(key, value);
+        decodeByName(key);
         save();
     }
 
@@ -366,6 +506,7 @@ public class Settings {
      */
     public static void add(String key, Serializable value) {
         settings.put(key, value);
+        decodeByName(key);
         save();
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.mixins;
+
+import com.peasenet.util.world.ContainerIndex;
+import net.minecraft.client.world.ClientChunkManager;
+import net.minecraft.world.chunk.WorldChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * @author gt3ch1
+ * @version 7/10/2022
+ * A mixin that keeps the container index up to date as chunks are loaded and unloaded on the client.
+ */
+@Mixin(ClientChunkManager.class)
+public class MixinClientChunkManager {
+    @Inject(method = "<init>", at = @At("RETURN"))
+    private void onInit(CallbackInfo ci) {
+        ContainerIndex.clear();
+    }
+
+    @Inject(method = "loadChunkFromPacket", at = @At("RETURN"))
+    private void onLoadChunk(CallbackInfoReturnable<WorldChunk> cir) {
+        var chunk = cir.getReturnValue();
+        if (chunk == null) return;
+        ContainerIndex.onChunkLoad(chunk);
+    }
+
+    @Inject(method = "unload", at = @At("HEAD"))
+    private void onUnload(int chunkX, int chunkZ, CallbackInfo ci) {
+        ContainerIndex.onChunkUnload(chunkX, chunkZ);
+    }
+}
@@ -21,7 +21,6 @@
 package com.peasenet.mixins;
 
 import com.peasenet.main.GavinsMod;
-import com.peasenet.mods.Mod;
 import com.peasenet.mods.Type;
 import net.minecraft.client.render.GameRenderer;
 import net.minecraft.client.util.math.MatrixStack;
@@ -42,8 +41,7 @@ public class MixinGameRender {
     @Inject(method = "bobView", at = @At("HEAD"), cancellable = true)
     public void checkTracersAndEsps(MatrixStack stack, float f, CallbackInfo ci) {
         // disable bobbing when any tracers are enabled.
-        var tracerCount = GavinsMod.getModsInCategory(Type.Category.TRACERS).stream().filter(Mod::isActive).count();
-        if (tracerCount > 0) {
+        if (GavinsMod.isAnyEnabled(Type.Category.TRACERS)) {
             ci.cancel();
         }
     }
@@ -19,9 +19,11 @@
 
 package com.peasenet.mixins;
 
+import com.peasenet.event.Events;
 import com.peasenet.main.GavinsMod;
-import com.peasenet.main.Mods;
+import com.peasenet.main.GavinsModClient;
 import com.peasenet.mods.Type;
+import com.peasenet.util.render.OffscreenIndicators;
 import net.minecraft.client.gui.hud.InGameHud;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.Identifier;
@@ -41,7 +43,9 @@ import java.util.Objects;
 public class MixinInGameHud {
     @Inject(at = @At("HEAD"), method = "render(Lnet/minecraft/client/util/math/MatrixStack;F)V")
     private void mixin(MatrixStack matrixStack, float delta, CallbackInfo ci) {
-        Mods.getMods().forEach(m -> m.onRenderInGameHud(matrixStack, delta));
+        Events.fireHudRender(matrixStack, delta);
+        var window = GavinsModClient.getMinecraftClient().getWindow();
+        OffscreenIndicators.render(matrixStack, window.getScaledWidth(), window.getScaledHeight());
     }
 
 
@@ -23,6 +23,7 @@ package com.peasenet.mixins;
 import com.peasenet.main.GavinsMod;
 import com.peasenet.mixinterface.IMinecraftClient;
 import com.peasenet.mods.Type;
+import com.peasenet.util.profiler.FrameStats;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.screen.Screen;
@@ -38,6 +39,7 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.io.File;
@@ -89,6 +91,11 @@ public abstract class MixinMinecraftClient implements IMinecraftClient {
         ci.cancel();
     }
 
+    @Inject(at = @At("HEAD"), method = "render(Z)V")
+    private void onRender(boolean tick, CallbackInfo ci) {
+        FrameStats.onFrame();
+    }
+
     @Override
     public void setItemUseCooldown(int cooldown) {
         itemUseCooldown = cooldown;
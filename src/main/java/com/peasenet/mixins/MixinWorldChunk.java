@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.mixins;
+
+import com.peasenet.util.world.ContainerIndex;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.WorldChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * @author gt3ch1
+ * @version 7/10/2022
+ * A mixin that keeps the container index up to date when block entities are added to or removed from a client chunk.
+ */
+@Mixin(WorldChunk.class)
+public class MixinWorldChunk {
+    @Inject(method = "setBlockEntity", at = @At("TAIL"))
+    private void onSetBlockEntity(BlockEntity blockEntity, CallbackInfo ci) {
+        if (((WorldChunk) (Object) this).getWorld().isClient())
+            ContainerIndex.add(blockEntity);
+    }
+
+    @Inject(method = "removeBlockEntity", at = @At("HEAD"))
+    private void onRemoveBlockEntity(BlockPos pos, CallbackInfo ci) {
+        if (((WorldChunk) (Object) this).getWorld().isClient())
+            ContainerIndex.remove(pos);
+    }
+}
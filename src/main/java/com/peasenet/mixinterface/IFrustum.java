@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.mixinterface;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Exposes the primitive visibility test of the frustum, so callers can test a box without allocating one.
+ */
+public interface IFrustum {
+    /**
+     * Gets whether the given box is visible in the frustum.
+     *
+     * @param minX - The minimum x coordinate of the box.
+     * @param minY - The minimum y coordinate of the box.
+     * @param minZ - The minimum z coordinate of the box.
+     * @param maxX - The maximum x coordinate of the box.
+     * @param maxY - The maximum y coordinate of the box.
+     * @param maxZ - The maximum z coordinate of the box.
+     * @return Whether the box is visible.
+     */
+    boolean isBoxVisible(double minX, double minY, double minZ, double maxX, double maxY, double maxZ);
+}
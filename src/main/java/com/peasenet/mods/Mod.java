@@ -20,12 +20,19 @@
 
 package com.peasenet.mods;
 
+import com.peasenet.event.AttackListener;
+import com.peasenet.event.Event;
+import com.peasenet.event.Events;
+import com.peasenet.event.HudRenderListener;
+import com.peasenet.event.TickListener;
 import com.peasenet.main.GavinsModClient;
 import com.peasenet.main.Mods;
 import com.peasenet.main.Settings;
 import com.peasenet.mixinterface.IMinecraftClient;
 import com.peasenet.settings.Setting;
 import com.peasenet.util.KeyBindUtils;
+import com.peasenet.util.jfr.JfrEvents;
+import com.peasenet.util.profiler.Profiler;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.math.MatrixStack;
@@ -76,6 +83,10 @@ public abstract class Mod implements IMod {
      * Whether the mod is enabled.
      */
     private boolean isEnabled = false;
+    /**
+     * The events this mod listens to.
+     */
+    private final ArrayList<Subscription<?>> subscriptions = new ArrayList<>();
 
     /**
      * Creates a new mod.
@@ -90,6 +101,7 @@ public abstract class Mod implements IMod {
         this.category = category;
         this.keyBinding = keyBinding;
         Mods.addMod(this);
+        subscribeHooks();
     }
 
     /**
@@ -131,13 +143,97 @@ public abstract class Mod implements IMod {
         return GavinsModClient.getMinecraftClient();
     }
 
+    /**
+     * Subscribes the hooks this mod overrides (onTick, onRenderInGameHud, onAttack) to their events. Mods that can
+     * deactivate stay subscribed to the tick and hud events while disabled, so they can finish deactivating. The tick
+     * and hud hooks are timed by the profiler, and recorded as flight recorder events when enabled.
+     */
+    private void subscribeHooks() {
+        var deactivates = overrides("isDeactivating");
+        if (overrides("onTick")) {
+            var section = Profiler.section("tick." + getChatCommand());
+            TickListener listener = () -> {
+                if (deactivates && !isActive() && !isDeactivating()) return;
+                var start = Profiler.start();
+                var event = JfrEvents.beginModHook(type, "tick");
+                onTick();
+                JfrEvents.commit(event);
+                Profiler.end(section, start);
+            };
+            addSubscription(new Subscription<>(Events.TICK, listener, 0, deactivates));
+        }
+        if (overrides("onRenderInGameHud", MatrixStack.class, float.class)) {
+            var section = Profiler.section("hud." + getChatCommand());
+            HudRenderListener listener = (stack, delta) -> {
+                if (deactivates && !isActive() && !isDeactivating()) return;
+                var start = Profiler.start();
+                var event = JfrEvents.beginModHook(type, "hud");
+                onRenderInGameHud(stack, delta);
+                JfrEvents.commit(event);
+                Profiler.end(section, start);
+            };
+            addSubscription(new Subscription<>(Events.HUD_RENDER, listener, 0, deactivates));
+        }
+        if (overrides("onAttack", Entity.class))
+            addSubscription(new Subscription<>(Events.ATTACK, (AttackListener) this::onAttack, 0, false));
+    }
+
+    /**
+     * Gets whether the class of this mod overrides the given method of Mod.
+     *
+     * @param name       - The name of the method.
+     * @param parameters - The parameter types of the method.
+     * @return Whether the method is overridden.
+     */
+    private boolean overrides(String name, Class<?>... parameters) {
+        try {
+            return getClass().getMethod(name, parameters).getDeclaringClass() != Mod.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Subscribes the given listener to the given event while this mod is enabled.
+     *
+     * @param event    - The event to listen to.
+     * @param listener - The listener.
+     * @param <L>      - The type of the listener.
+     */
+    protected <L> void subscribe(Event<L> event, L listener) {
+        subscribe(event, listener, 0);
+    }
+
+    /**
+     * Subscribes the given listener to the given event while this mod is enabled.
+     *
+     * @param event    - The event to listen to.
+     * @param listener - The listener.
+     * @param priority - The priority of the listener, higher priorities are called first.
+     * @param <L>      - The type of the listener.
+     */
+    protected <L> void subscribe(Event<L> event, L listener, int priority) {
+        addSubscription(new Subscription<>(event, listener, priority, false));
+    }
+
+    /**
+     * Adds the given subscription, attaching it right away if it is persistent or the mod is enabled.
+     *
+     * @param subscription - The subscription to add.
+     */
+    private void addSubscription(Subscription<?> subscription) {
+        subscriptions.add(subscription);
+        if (subscription.persistent() || isEnabled)
+            subscription.attach();
+    }
+
     /**
      * Sends a message to the player.
      *
      * @param message The message to send.
      */
     public void sendMessage(String message) {
-        if (Settings.getBool("misc.messages") && !reloading)
+        if (Settings.MISC_MESSAGES.get() && !reloading)
             GavinsModClient.getPlayer().sendMessage(Text.literal(message), false);
     }
 
@@ -167,12 +263,12 @@ public abstract class Mod implements IMod {
     }
 
     public void activate() {
-        isEnabled = true;
+        setEnabled(true);
         onEnable();
     }
 
     public void deactivate() {
-        isEnabled = false;
+        setEnabled(false);
         onDisable();
     }
 
@@ -185,7 +281,14 @@ public abstract class Mod implements IMod {
     }
 
     public void setEnabled(boolean enabled) {
+        if (isEnabled == enabled) return;
         isEnabled = enabled;
+        Mods.onEnabledChanged(this, enabled);
+        for (var subscription : subscriptions) {
+            if (subscription.persistent()) continue;
+            if (enabled) subscription.attach();
+            else subscription.detach();
+        }
     }
 
     public Type.Category getCategory() {
@@ -249,4 +352,23 @@ public abstract class Mod implements IMod {
         getSettings().clear();
         modSettings.addAll(tmpSettings);
     }
+
+    /**
+     * A listener of this mod, subscribed to an event.
+     *
+     * @param event      - The event.
+     * @param listener   - The listener.
+     * @param priority   - The priority of the listener.
+     * @param persistent - Whether the listener stays subscribed while the mod is disabled.
+     * @param <L>        - The type of the listener.
+     */
+    private record Subscription<L>(Event<L> event, L listener, int priority, boolean persistent) {
+        void attach() {
+            event.subscribe(listener, priority);
+        }
+
+        void detach() {
+            event.unsubscribe(listener);
+        }
+    }
 }
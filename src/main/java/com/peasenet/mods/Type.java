@@ -68,6 +68,7 @@ public enum Type {
     // MISC
     MOD_FPS_COUNTER("FPS Counter", "gavinsmod.mod.misc.fpscounter", "gavinsmod.keybinds.misc", MISC, "fpscounter"),
     MOD_GUI_TEXT_OVERLAY("GUI Text Overlay", "gavinsmod.mod.misc.textoverlay", "gavinsmod.keybinds.misc", MISC, "textoverlay"),
+    PROFILER("Profiler", "gavinsmod.mod.misc.profiler", "gavinsmod.keybinds.misc", MISC, "profiler"),
 
     // GUI (translation key not needed)
     MOD_GUI("GUI", "gavinsmod.gui", "gavinsmod.keybinds.gui", GLFW.GLFW_KEY_I, GUI, "gui"),
@@ -21,39 +21,72 @@
 package com.peasenet.mods.combat;
 
 import com.peasenet.main.GavinsModClient;
+import com.peasenet.main.Settings;
 import com.peasenet.mods.Mod;
 import com.peasenet.mods.Type;
+import com.peasenet.settings.CycleSetting;
 import com.peasenet.util.PlayerUtils;
 import com.peasenet.util.math.MathUtils;
-import net.minecraft.entity.Entity;
+import com.peasenet.util.world.EntityIndex;
+import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.mob.MobEntity;
-
-import java.util.stream.StreamSupport;
+import net.minecraft.text.Text;
 
 /**
  * @author gt3ch1
  * @version 6/14/2022
- * A mod that makes the player face and attack the nearest mob.
+ * A mod that makes the player face and attack the best mobs in range, ranked by the configured priority.
  */
 public class ModKillAura extends Mod {
+    /**
+     * The entity index categories that can contain mobs.
+     */
+    private static final int MOBS = (1 << EntityIndex.HOSTILE) | (1 << EntityIndex.PEACEFUL);
+
+    /**
+     * The most targets that can be attacked in one tick.
+     */
+    private static final int MAX_TARGETS = 5;
+
+    /**
+     * Picks the targets to attack each tick.
+     */
+    private final TargetSelector selector = new TargetSelector();
+
+    /**
+     * The targets picked this tick, best first.
+     */
+    private final LivingEntity[] targets = new LivingEntity[MAX_TARGETS];
+
     public ModKillAura() {
         super(Type.KILL_AURA);
+        CycleSetting priority = new CycleSetting("combat.killaura.priority", "gavinsmod.settings.combat.killaura.priority",
+                Text.translatable("gavinsmod.settings.combat.killaura.priority.nearest"),
+                Text.translatable("gavinsmod.settings.combat.killaura.priority.health"),
+                Text.translatable("gavinsmod.settings.combat.killaura.priority.angle"));
+        var targetCounts = new Text[MAX_TARGETS];
+        for (int i = 0; i < MAX_TARGETS; i++)
+            targetCounts[i] = Text.literal(String.valueOf(i + 1));
+        CycleSetting targetCount = new CycleSetting("combat.killaura.targets", "gavinsmod.settings.combat.killaura.targets", targetCounts);
+        addSetting(priority);
+        addSetting(targetCount);
     }
 
     @Override
     public void onTick() {
-        if (GavinsModClient.getMinecraftClient().getWorld() != null && isActive()) {
-            var stream = StreamSupport.stream(GavinsModClient.getMinecraftClient().getWorld().getEntities().spliterator(), false)
-                    .filter(e -> e instanceof MobEntity)
-                    .filter(Entity::isAlive)
-                    .filter(e -> PlayerUtils.distanceToEntity(e) <= 16)
-                    .sorted((e1, e2) -> (int) ((int) PlayerUtils.distanceToEntity(e1) - PlayerUtils.distanceToEntity(e2)))
-                    .map(e -> (MobEntity) e);
-
-            stream.forEach(entity -> {
-                PlayerUtils.setRotation(MathUtils.getRotationToEntity(entity));
-                PlayerUtils.attackEntity(entity);
-            });
+        var player = getPlayer();
+        if (GavinsModClient.getMinecraftClient().getWorld() == null || player == null || !isActive()) return;
+        var priority = TargetSelector.Priority.fromIndex(Settings.COMBAT_KILLAURA_PRIORITY.get());
+        var limit = Math.min(MAX_TARGETS, Settings.COMBAT_KILLAURA_TARGETS.get() + 1);
+        selector.begin(player, priority, limit);
+        EntityIndex.forEachNear(player.getX(), player.getY(), player.getZ(), 4, MOBS, (entity, category, squaredDistance) -> {
+            if (entity instanceof MobEntity mob && mob.isAlive()) selector.offer(mob, squaredDistance);
+        });
+        var count = selector.drain(targets);
+        for (int i = 0; i < count; i++) {
+            PlayerUtils.setRotation(MathUtils.getRotationToEntity(targets[i]));
+            PlayerUtils.attackEntity(targets[i]);
+            targets[i] = null;
         }
     }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.mods.combat;
+
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Arrays;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Picks the best few targets out of a stream of candidates in a single pass. The worst of the current best targets is
+ * kept at the top of a bounded heap, so each candidate costs at most O(log k), and no list of every candidate is built.
+ */
+public class TargetSelector {
+
+    /**
+     * How targets are ranked. A lower score is a better target.
+     */
+    public enum Priority {
+        /**
+         * The closest target first.
+         */
+        NEAREST,
+        /**
+         * The target with the least health first.
+         */
+        LOWEST_HEALTH,
+        /**
+         * The target closest to where the player is looking first.
+         */
+        SMALLEST_ANGLE;
+
+        /**
+         * Gets the priority at the given index, used to read the priority from the settings.
+         *
+         * @param index - The index of the priority.
+         * @return The priority at the index, or NEAREST if the index is out of range.
+         */
+        public static Priority fromIndex(int index) {
+            var values = values();
+            return index >= 0 && index < values.length ? values[index] : NEAREST;
+        }
+    }
+
+    /**
+     * The candidates in the heap. The worst candidate is at index 0.
+     */
+    private LivingEntity[] targets = new LivingEntity[1];
+
+    /**
+     * The score of each candidate in the heap.
+     */
+    private double[] scores = new double[1];
+
+    /**
+     * The number of candidates in the heap.
+     */
+    private int size = 0;
+
+    /**
+     * The maximum number of targets to keep.
+     */
+    private int limit = 1;
+
+    /**
+     * The current ranking of targets.
+     */
+    private Priority priority = Priority.NEAREST;
+
+    /**
+     * The position of the player's eyes and the direction they are looking in, used for SMALLEST_ANGLE.
+     */
+    private double eyeX, eyeY, eyeZ, lookX, lookY, lookZ;
+
+    /**
+     * Starts a new selection, dropping any previous candidates.
+     *
+     * @param player   - The player that is selecting targets.
+     * @param priority - How to rank the targets.
+     * @param limit    - The maximum number of targets to keep.
+     */
+    public void begin(PlayerEntity player, Priority priority, int limit) {
+        begin(player.getEyePos(), player.getRotationVec(1f), priority, limit);
+    }
+
+    /**
+     * Starts a new selection, dropping any previous candidates.
+     *
+     * @param eyes     - The position of the eyes of the player.
+     * @param look     - The direction the player is looking in.
+     * @param priority - How to rank the targets.
+     * @param limit    - The maximum number of targets to keep.
+     */
+    public void begin(Vec3d eyes, Vec3d look, Priority priority, int limit) {
+        Arrays.fill(targets, 0, size, null);
+        size = 0;
+        this.priority = priority;
+        this.limit = Math.max(1, limit);
+        if (targets.length < this.limit) {
+            targets = new LivingEntity[this.limit];
+            scores = new double[this.limit];
+        }
+        eyeX = eyes.x;
+        eyeY = eyes.y;
+        eyeZ = eyes.z;
+        lookX = look.x;
+        lookY = look.y;
+        lookZ = look.z;
+    }
+
+    /**
+     * Offers a candidate to the selection.
+     *
+     * @param target          - The candidate.
+     * @param squaredDistance - The squared distance between the player and the candidate.
+     */
+    public void offer(LivingEntity target, double squaredDistance) {
+        var score = score(target, squaredDistance);
+        if (size < limit) {
+            targets[size] = target;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score < scores[0]) {
+            targets[0] = target;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Gets the selected targets, best first, and clears the selection.
+     *
+     * @param out - An array to write the targets to, which must hold at least the limit given to #begin.
+     * @return The number of targets written.
+     */
+    public int drain(LivingEntity[] out) {
+        var count = size;
+        // repeatedly remove the worst candidate, filling the output from the back.
+        while (size > 0) {
+            out[size - 1] = targets[0];
+            size--;
+            targets[0] = targets[size];
+            scores[0] = scores[size];
+            targets[size] = null;
+            siftDown(0);
+        }
+        return count;
+    }
+
+    /**
+     * Computes the score of a candidate under the current priority. Ties are broken by distance.
+     *
+     * @param target          - The candidate.
+     * @param squaredDistance - The squared distance between the player and the candidate.
+     * @return The score, where lower is better.
+     */
+    private double score(LivingEntity target, double squaredDistance) {
+        return switch (priority) {
+            case NEAREST -> squaredDistance;
+            case LOWEST_HEALTH -> target.getHealth() * 1024 + squaredDistance;
+            case SMALLEST_ANGLE -> {
+                var dx = target.getX() - eyeX;
+                var dy = target.getBodyY(0.5) - eyeY;
+                var dz = target.getZ() - eyeZ;
+                var length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                if (length == 0) yield 0;
+                // 1 - cos(angle) grows with the angle between the look direction and the target.
+                var cos = (dx * lookX + dy * lookY + dz * lookZ) / length;
+                yield (1 - cos) * 1024 + squaredDistance / 1024;
+            }
+        };
+    }
+
+    /**
+     * Moves the candidate at the given index up the heap until its parent is worse.
+     *
+     * @param index - The index of the candidate.
+     */
+    private void siftUp(int index) {
+        while (index > 0) {
+            var parent = (index - 1) >>> 1;
+            if (scores[parent] >= scores[index]) return;
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    /**
+     * Moves the candidate at the given index down the heap until both children are better.
+     *
+     * @param index - The index of the candidate.
+     */
+    private void siftDown(int index) {
+        while (true) {
+            var left = index * 2 + 1;
+            if (left >= size) return;
+            var worst = left + 1 < size && scores[left + 1] > scores[left] ? left + 1 : left;
+            if (scores[index] >= scores[worst]) return;
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    /**
+     * Swaps two candidates in the heap.
+     *
+     * @param a - The index of the first candidate.
+     * @param b - The index of the second candidate.
+     */
+    private void swap(int a, int b) {
+        var target = targets[a];
+        targets[a] = targets[b];
+        targets[b] = target;
+        var score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -40,12 +40,14 @@ public class ModGuiSettings extends Mod {
         ColorSetting categoryColorSetting = new ColorSetting("gui.color.category", "gavinsmod.settings.gui.color.category");
         ColorSetting enabledColorSetting = new ColorSetting("gui.color.enabled", "gavinsmod.settings.gui.color.enabled");
         ToggleSetting guiSounds = new ToggleSetting("gui.sound", "gavinsmod.settings.gui.sound");
+        ToggleSetting offscreenTracers = new ToggleSetting("tracer.offscreen", "gavinsmod.settings.tracer.offscreen");
 
         addSetting(backgroundColorSetting);
         addSetting(foregroundColorSetting);
         addSetting(categoryColorSetting);
         addSetting(enabledColorSetting);
         addSetting(guiSounds);
+        addSetting(offscreenTracers);
     }
 
     @Override
@@ -32,15 +32,68 @@ import com.peasenet.settings.ToggleSetting;
 import com.peasenet.util.RenderUtils;
 import com.peasenet.util.math.BoxD;
 import com.peasenet.util.math.PointD;
+import com.peasenet.util.profiler.FrameStats;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.text.Text;
 
 /**
  * @author gt3ch1
  * @version 6/28/2022
- * A mod that renders the current frames per second in the top right corner of the screen.
+ * A mod that renders the current frames per second in the top right corner of the screen, and optionally the frame
+ * pacing, garbage collection and allocation statistics below it.
  */
 public class ModFpsCounter extends Mod {
+
+    /**
+     * The number of frames shown in the frame time graph.
+     */
+    private static final int GRAPH_FRAMES = 120;
+
+    /**
+     * The height of the frame time graph, in scaled pixels.
+     */
+    private static final int GRAPH_HEIGHT = 30;
+
+    /**
+     * The frame time, in nanoseconds, drawn at the full height of the graph.
+     */
+    private static final long GRAPH_MAX_NANOS = 50_000_000L;
+
+    /**
+     * The number of text lines of the frame stats.
+     */
+    private static final int STAT_LINES = 3;
+
+    /**
+     * The height of the frame stats panel, in scaled pixels.
+     */
+    private static final int STATS_HEIGHT = STAT_LINES * 10 + GRAPH_HEIGHT + 4;
+
+    /**
+     * The recent frame times, reused every frame.
+     */
+    private final long[] frameTimes = new long[GRAPH_FRAMES];
+
+    /**
+     * The heights of the bars of the graph, reused every frame.
+     */
+    private final int[] barHeights = new int[GRAPH_FRAMES];
+
+    /**
+     * The text lines of the frame stats, rebuilt only when the stats are updated.
+     */
+    private final Text[] statLines = new Text[STAT_LINES];
+
+    /**
+     * The width of the widest text line of the frame stats.
+     */
+    private int statWidth = 0;
+
+    /**
+     * The update of the frame stats that the text lines were built from.
+     */
+    private int statUpdate = -1;
+
     public ModFpsCounter() {
         super(Type.MOD_FPS_COUNTER);
         SubSetting fpsSetting = new SubSetting(50, 10, "gavinsmod.settings.misc.fpscolors");
@@ -52,6 +105,8 @@ public class ModFpsCounter extends Mod {
         fpsSetting.add(fpsSlowColor);
         fpsSetting.add(fpsOkColor);
         fpsSetting.add(fpsFastColor);
+        ToggleSetting detailed = new ToggleSetting("misc.fps.detailed", "gavinsmod.settings.misc.fps.detailed");
+        fpsSetting.add(detailed);
         fpsSetting.getGui().setDirection(GuiDropdown.Direction.RIGHT);
         addSetting(fpsSetting);
 
@@ -61,6 +116,54 @@ public class ModFpsCounter extends Mod {
     public void onRenderInGameHud(MatrixStack matrixStack, float delta) {
         if (GavinsMod.isEnabled(Type.MOD_GUI) || GavinsMod.isEnabled(Type.SETTINGS) || !isActive()) return;
         drawFpsOverlay(matrixStack);
+        if (Settings.MISC_FPS_DETAILED.get()) drawFrameStats(matrixStack);
+    }
+
+    /**
+     * Gets the height of everything the fps counter draws in the top right corner, so other overlays can be drawn
+     * below it.
+     *
+     * @return The height of the overlay, in scaled pixels.
+     */
+    public static int getOverlayHeight() {
+        if (!GavinsMod.isEnabled(Type.MOD_FPS_COUNTER)) return 0;
+        return Settings.MISC_FPS_DETAILED.get() ? 14 + STATS_HEIGHT : 14;
+    }
+
+    /**
+     * Draws the frame pacing, garbage collection and allocation statistics, and a graph of the recent frame times,
+     * below the fps counter.
+     *
+     * @param matrixStack - The matrix stack to use.
+     */
+    private void drawFrameStats(MatrixStack matrixStack) {
+        var textRenderer = getClient().getTextRenderer();
+        if (statUpdate != FrameStats.getUpdates()) {
+            statUpdate = FrameStats.getUpdates();
+            statLines[0] = Text.literal(String.format("avg %.1fms 1%% %.1fms 0.1%% %.1fms",
+                    FrameStats.getAverage() / 1e6, FrameStats.getLow1() / 1e6, FrameStats.getLow01() / 1e6));
+            statLines[1] = Text.literal(String.format("GC %d (%dms) heap %d/%dMB", FrameStats.getGcCount(),
+                    FrameStats.getGcMillis(), FrameStats.getHeapUsed() >> 20, FrameStats.getHeapMax() >> 20));
+            var rate = FrameStats.getAllocationRate();
+            statLines[2] = Text.literal(rate < 0 ? "alloc n/a" : String.format("alloc %.1fMB/s", rate / (double) (1 << 20)));
+            statWidth = GRAPH_FRAMES;
+            for (var line : statLines)
+                statWidth = Math.max(statWidth, textRenderer.getWidth(line));
+        }
+        var right = getClient().getWindow().getScaledWidth();
+        var xCoordinate = right - statWidth - 2;
+        var yCoordinate = 14;
+        var box = new BoxD(new PointD(xCoordinate - 2, yCoordinate - 2), statWidth + 4, STATS_HEIGHT);
+        RenderUtils.drawBox(Settings.GUI_COLOR_BACKGROUND.get().getAsFloatArray(), box, matrixStack);
+        var color = Settings.GUI_COLOR_FOREGROUND.get();
+        for (var line : statLines) {
+            textRenderer.draw(matrixStack, line, xCoordinate, yCoordinate, color.getAsInt());
+            yCoordinate += 10;
+        }
+        var count = FrameStats.getRecentFrameTimes(frameTimes);
+        for (int i = 0; i < count; i++)
+            barHeights[i] = (int) Math.max(1, Math.min(GRAPH_HEIGHT, frameTimes[i] * GRAPH_HEIGHT / GRAPH_MAX_NANOS));
+        RenderUtils.drawBars(color.getAsFloatArray(), right - 2 - count, yCoordinate + GRAPH_HEIGHT, barHeights, count, matrixStack);
     }
 
     /**
@@ -75,13 +178,13 @@ public class ModFpsCounter extends Mod {
         var xCoordinate = GavinsModClient.getMinecraftClient().getWindow().getScaledWidth() - (fpsString.length() * 5 + 2);
         var box = new BoxD(new PointD(xCoordinate - 2, 0), fpsString.length() * 5 + 4, 12);
         var maximumFps = GavinsModClient.getMinecraftClient().getOptions().getMaxFps().getValue();
-        var color = Settings.getColor("gui.color.foreground");
-        if (Settings.getBool("misc.fps.color.enabled")) {
-            if (fps >= maximumFps * 0.85) color = Settings.getColor("misc.fps.color.fast");
-            else if (fps > maximumFps * 0.45 && fps < maximumFps * 0.85) color = Settings.getColor("misc.fps.color.ok");
-            else color = Settings.getColor("misc.fps.color.slow");
+        var color = Settings.GUI_COLOR_FOREGROUND.get();
+        if (Settings.MISC_FPS_COLOR_ENABLED.get()) {
+            if (fps >= maximumFps * 0.85) color = Settings.MISC_FPS_COLOR_FAST.get();
+            else if (fps > maximumFps * 0.45 && fps < maximumFps * 0.85) color = Settings.MISC_FPS_COLOR_OK.get();
+            else color = Settings.MISC_FPS_COLOR_SLOW.get();
         }
-        RenderUtils.drawBox((Settings.getColor("gui.color.background")).getAsFloatArray(), box, matrixStack);
+        RenderUtils.drawBox(Settings.GUI_COLOR_BACKGROUND.get().getAsFloatArray(), box, matrixStack);
         textRenderer.draw(matrixStack, Text.literal(fpsString), xCoordinate, 2, color.getAsInt());
     }
 }
@@ -46,7 +46,7 @@ public class ModGuiTextOverlay extends Mod {
 
         //NOTE: This isn't really the best place for this, but it works for now. this is for chat message toggles.
         ToggleSetting chatMessage = new ToggleSetting("misc.messages", "gavinsmod.settings.misc.messages");
-        chatMessage.setValue(Settings.getBool("misc.messages"));
+        chatMessage.setValue(Settings.MISC_MESSAGES.get());
         addSetting(chatMessage);
     }
 
@@ -78,13 +78,13 @@ public class ModGuiTextOverlay extends Mod {
         // get the mod with the longest name.
         var longestModName = mods.max(Comparator.comparingInt(mod -> mod.getName().length())).get().getName().length();
         var box = new BoxD(startingPoint, longestModName * 6 + 6, modsCount * 12);
-        RenderUtils.drawBox((Settings.getColor("backgroundColor")).getAsFloatArray(), box, matrixStack);
+        RenderUtils.drawBox(Settings.GUI_COLOR_BACKGROUND.get().getAsFloatArray(), box, matrixStack);
         mods = GavinsMod.getModsForTextOverlay();
         AtomicInteger modCounter = new AtomicInteger();
         mods.forEach(mod -> {
-            textRenderer.draw(matrixStack, Text.translatable(mod.getTranslationKey()), currX, currY.get(), (Settings.getColor("foregroundColor")).getAsInt());
+            textRenderer.draw(matrixStack, Text.translatable(mod.getTranslationKey()), currX, currY.get(), Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
             if (modsCount > 1 && modCounter.get() < modsCount - 1) {
-                RenderUtils.drawSingleLine((Settings.getColor("foregroundColor")).getAsFloatArray(), currX - 1, currY.get() + 9, longestModName * 6 + 5, currY.get() + 9, matrixStack);
+                RenderUtils.drawSingleLine(Settings.GUI_COLOR_FOREGROUND.get().getAsFloatArray(), currX - 1, currY.get() + 9, longestModName * 6 + 5, currY.get() + 9, matrixStack);
             }
             currY.addAndGet(12);
             modCounter.getAndIncrement();
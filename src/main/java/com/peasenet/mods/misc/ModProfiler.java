@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.mods.misc;
+
+import com.peasenet.main.GavinsMod;
+import com.peasenet.main.Settings;
+import com.peasenet.mods.Mod;
+import com.peasenet.mods.Type;
+import com.peasenet.settings.ToggleSetting;
+import com.peasenet.util.RenderUtils;
+import com.peasenet.util.math.BoxD;
+import com.peasenet.util.math.PointD;
+import com.peasenet.util.profiler.Profiler;
+import com.peasenet.util.profiler.ProfilerSection;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.text.Text;
+
+import java.util.List;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * A mod that records how long the hooks of each mod and each phase of the world renderer take, and shows the
+ * slowest of them in the top right corner of the screen.
+ */
+public class ModProfiler extends Mod {
+
+    /**
+     * The number of frames between refreshes of the panel.
+     */
+    private static final int REFRESH_FRAMES = 20;
+
+    /**
+     * The maximum number of sections shown in the panel.
+     */
+    private static final int MAX_LINES = 10;
+
+    /**
+     * The lines currently shown in the panel.
+     */
+    private List<String> lines = List.of();
+
+    /**
+     * The number of frames since the panel was refreshed.
+     */
+    private int frames = REFRESH_FRAMES;
+
+    /**
+     * Whether the mod emits flight recorder events.
+     */
+    private final ToggleSetting jfrSetting;
+
+    public ModProfiler() {
+        super(Type.PROFILER);
+        jfrSetting = new ToggleSetting("misc.jfr", "gavinsmod.settings.misc.jfr");
+        addSetting(jfrSetting);
+    }
+
+    /**
+     * Sets whether the mod emits flight recorder events, updating the toggle in the settings menu.
+     *
+     * @param enabled - Whether to emit events.
+     */
+    public void setJfrEnabled(boolean enabled) {
+        jfrSetting.setValue(enabled);
+    }
+
+    @Override
+    public void onEnable() {
+        Profiler.reset();
+        Profiler.setEnabled(true);
+        super.onEnable();
+    }
+
+    @Override
+    public void onDisable() {
+        Profiler.setEnabled(false);
+        lines = List.of();
+        super.onDisable();
+    }
+
+    @Override
+    public void onRenderInGameHud(MatrixStack matrixStack, float delta) {
+        if (GavinsMod.isEnabled(Type.MOD_GUI) || GavinsMod.isEnabled(Type.SETTINGS)) return;
+        if (++frames >= REFRESH_FRAMES) {
+            frames = 0;
+            lines = Profiler.summarize().stream().limit(MAX_LINES).map(ProfilerSection.Summary::format).toList();
+        }
+        if (lines.isEmpty()) return;
+        var textRenderer = getClient().getTextRenderer();
+        var width = 0;
+        for (var line : lines)
+            width = Math.max(width, textRenderer.getWidth(line));
+        var xCoordinate = getClient().getWindow().getScaledWidth() - width - 2;
+        var yCoordinate = ModFpsCounter.getOverlayHeight() + 2;
+        var box = new BoxD(new PointD(xCoordinate - 2, yCoordinate - 2), width + 4, lines.size() * 10 + 2);
+        RenderUtils.drawBox(Settings.GUI_COLOR_BACKGROUND.get().getAsFloatArray(), box, matrixStack);
+        var color = Settings.GUI_COLOR_FOREGROUND.get().getAsInt();
+        for (var line : lines) {
+            textRenderer.draw(matrixStack, Text.literal(line), xCoordinate, yCoordinate, color);
+            yCoordinate += 10;
+        }
+    }
+}
@@ -26,8 +26,8 @@ import com.peasenet.mods.Mod;
 import com.peasenet.mods.Type;
 import com.peasenet.mods.render.waypoints.Waypoint;
 import com.peasenet.settings.ClickSetting;
+import com.peasenet.settings.ListSetting;
 import com.peasenet.settings.SubSetting;
-import com.peasenet.settings.ToggleSetting;
 import net.minecraft.text.Text;
 
 import java.util.Comparator;
@@ -52,25 +52,14 @@ public class ModWaypoint extends Mod {
         openMenu.getGui().setSymbol('\u002b');
         setting.add(openMenu);
 
-        // get all waypoints and add them to the menu
-        Settings.getWaypoints().stream().sorted(Comparator.comparing(Waypoint::getName)).forEach(waypoint -> createWaypoint(setting, waypoint));
+        // the saved waypoints are shown in a list that only creates the rows it can show.
+        var list = new ListSetting<Waypoint>(100, 10, "gavinsmod.settings.render.waypoints.list", 8,
+                waypoint -> Text.literal(waypoint.getName()), Waypoint::isEnabled,
+                waypoint -> getClient().setScreen(new GuiWaypoint(waypoint)));
+        var waypoints = Settings.getWaypoints();
+        waypoints.sort(Comparator.comparing(Waypoint::getName));
+        list.setItems(waypoints);
+        setting.add(list);
         addSetting(setting);
     }
-
-    /**
-     * Creates a new setting to edit the given waypoint and adds it to the given setting.
-     *
-     * @param subSetting - The setting to add the waypoint to.
-     * @param waypoint   - The waypoint to edit.
-     */
-    private void createWaypoint(SubSetting subSetting, Waypoint waypoint) {
-        ToggleSetting clickSetting = new ToggleSetting("none", Text.literal(waypoint.getName()), true);
-        clickSetting.setWidth(100);
-        subSetting.add(clickSetting);
-        clickSetting.setCallback(() -> {
-            getClient().setScreen(new GuiWaypoint(waypoint));
-            clickSetting.setValue(waypoint.isEnabled());
-        });
-        clickSetting.setValue(waypoint.isEnabled());
-    }
 }
@@ -22,15 +22,18 @@ package com.peasenet.mods.render;
 
 import com.peasenet.gui.mod.xray.GuiXray;
 import com.peasenet.main.GavinsMod;
-import com.peasenet.main.Mods;
 import com.peasenet.main.Settings;
 import com.peasenet.mods.Mod;
 import com.peasenet.mods.Type;
+import com.peasenet.mods.render.xray.XrayBlockTable;
+import com.peasenet.mods.render.xray.XrayRemesher;
 import com.peasenet.settings.ClickSetting;
 import com.peasenet.settings.SubSetting;
 import com.peasenet.settings.ToggleSetting;
 import com.peasenet.util.RenderUtils;
 import net.minecraft.block.BlockState;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.text.Text;
 
 /**
  * @author gt3ch1
@@ -64,23 +67,44 @@ public class ModXray extends Mod {
      * @return True if visible, false if not
      */
     public static boolean shouldDrawFace(BlockState block) {
-        if (GavinsMod.isEnabled(Type.XRAY)) return Settings.isXrayBlock(block.getBlock());
+        if (GavinsMod.isEnabled(Type.XRAY)) return Settings.getXrayBlockTable().contains(block.getBlock());
         return true;
     }
 
+    /**
+     * Rebuilds only the chunk sections that contain blocks whose visibility changed since the given xray table was
+     * current. Does nothing if xray is disabled, since the chunk meshes do not depend on the xray blocks then.
+     *
+     * @param previous - The xray table before the change.
+     */
+    public static void onXrayBlocksChanged(XrayBlockTable previous) {
+        if (!GavinsMod.isEnabled(Type.XRAY)) return;
+        XrayRemesher.enqueue(XrayBlockTable.changedBetween(previous, Settings.getXrayBlockTable()));
+    }
+
     @Override
     public void activate() {
         if (!GavinsMod.isEnabled(Type.FULL_BRIGHT)) RenderUtils.setLastGamma();
-        getClient().setChunkCulling(Settings.getBool("xray.disable_culling"));
+        getClient().setChunkCulling(Settings.XRAY_DISABLE_CULLING.get());
         super.activate();
         reloadRenderer();
     }
 
     /**
-     * Reloads the renderer if and only if the setting "xray.forcereload" is true.
+     * Rebuilds the loaded chunks so they reflect whether xray is enabled. The rebuild is spread over several frames,
+     * starting at the camera, and the old chunk meshes stay visible until they are replaced.
      */
     private void reloadRenderer() {
-        if (Mods.getMod("xray").isActive()) getClient().getWorldRenderer().reload();
+        XrayRemesher.remeshAll();
+    }
+
+    @Override
+    public void onRenderInGameHud(MatrixStack matrixStack, float delta) {
+        if (!XrayRemesher.isRunning()) return;
+        var text = "Xray: " + (int) (XrayRemesher.getProgress() * 100) + "%";
+        var textRenderer = getClient().getTextRenderer();
+        var x = getClient().getWindow().getScaledWidth() / 2 - textRenderer.getWidth(text) / 2;
+        textRenderer.draw(matrixStack, Text.literal(text), x, 2, Settings.GUI_COLOR_FOREGROUND.get().getAsInt());
     }
 
     @Override
@@ -71,6 +71,16 @@ public class Waypoint {
      */
     private boolean espEnabled;
 
+    /**
+     * The address of the server the waypoint was made on, or null for waypoints that are shown in every world.
+     */
+    private String server;
+
+    /**
+     * The dimension the waypoint is in (ie, "minecraft:overworld"), or null for waypoints that are shown in every world.
+     */
+    private String dimension;
+
     /**
      * Creates a new waypoint at the given coordinates.
      *
@@ -241,6 +251,42 @@ public class Waypoint {
         this.z = z;
     }
 
+    /**
+     * Gets the address of the server the waypoint was made on.
+     *
+     * @return The server address, or null if the waypoint is shown in every world.
+     */
+    public String getServer() {
+        return server;
+    }
+
+    /**
+     * Sets the address of the server the waypoint belongs to.
+     *
+     * @param server - The server address.
+     */
+    public void setServer(String server) {
+        this.server = server;
+    }
+
+    /**
+     * Gets the dimension the waypoint is in.
+     *
+     * @return The dimension, or null if the waypoint is shown in every world.
+     */
+    public String getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Sets the dimension the waypoint is in.
+     *
+     * @param dimension - The dimension.
+     */
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
     /**
      * Whether this waypoint and the given waypoint are equal. The comparison is done on the name,
      * x, y, and z coordinates.
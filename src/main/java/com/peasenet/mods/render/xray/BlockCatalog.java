@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.mods.render.xray;
+
+import com.peasenet.main.GavinsMod;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.resource.language.I18n;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.util.Util;
+import net.minecraft.util.registry.Registry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Every block that can be picked in the xray menu, sorted by its translated name, with its item stack and a trigram
+ * index over its lower case name and registry path. The catalog is built once in the background when the game
+ * starts (and again when the language changes), so searching only has to walk the shortest posting list of the
+ * search text instead of translating and sorting the whole block registry on every key press.
+ */
+public final class BlockCatalog {
+
+    /**
+     * The catalog that is being built in the background, or null if there is none.
+     */
+    private static CompletableFuture<BlockCatalog> pending;
+
+    /**
+     * The latest catalog that was built, or null if there is none yet.
+     */
+    private static volatile BlockCatalog current;
+
+    /**
+     * The blocks, sorted by their translated names.
+     */
+    private final Block[] blocks;
+
+    /**
+     * The translated names of the blocks.
+     */
+    private final String[] names;
+
+    /**
+     * The lower case text the blocks are searched by: the registry path and the translated name. The translation key is
+     * left out, since every key starts with "block.minecraft." and so would match every search for those words.
+     */
+    private final String[] searchKeys;
+
+    /**
+     * The item stacks drawn for the blocks.
+     */
+    private final ItemStack[] stacks;
+
+    /**
+     * The indexes of the blocks whose search key contains each trigram, in ascending order.
+     */
+    private final Long2ObjectOpenHashMap<int[]> trigrams = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * The language the names were translated to.
+     */
+    private final String language;
+
+    /**
+     * Creates a new catalog from the given sorted blocks.
+     *
+     * @param blocks   - The blocks, sorted by their translated names.
+     * @param names    - The translated names of the blocks.
+     * @param language - The language the names were translated to.
+     */
+    private BlockCatalog(Block[] blocks, String[] names, String language) {
+        this.blocks = blocks;
+        this.names = names;
+        this.language = language;
+        searchKeys = new String[blocks.length];
+        stacks = new ItemStack[blocks.length];
+        var postings = new Long2ObjectOpenHashMap<IntArrayList>();
+        for (int i = 0; i < blocks.length; i++) {
+            // the line break can not be typed into the search box, so no search matches across the two parts.
+            var key = Registry.BLOCK.getId(blocks[i]).getPath() + "\n" + names[i].toLowerCase(Locale.ROOT);
+            searchKeys[i] = key;
+            stacks[i] = blocks[i].asItem().getDefaultStack();
+            for (int c = 0; c + 3 <= key.length(); c++) {
+                var list = postings.computeIfAbsent(trigram(key, c), k -> new IntArrayList());
+                // a key can contain the same trigram twice, but its index only has to be listed once.
+                if (list.isEmpty() || list.getInt(list.size() - 1) != i) list.add(i);
+            }
+        }
+        postings.long2ObjectEntrySet().fastForEach(e -> trigrams.put(e.getLongKey(), e.getValue().toIntArray()));
+    }
+
+    /**
+     * Starts building the catalog in the background, for the current language. If the build fails, the next call to
+     * #get starts a new one.
+     */
+    public static synchronized void buildAsync() {
+        var language = currentLanguage();
+        var future = CompletableFuture.supplyAsync(() -> build(Registry.BLOCK, I18n::translate, language), Util.getMainWorkerExecutor());
+        pending = future;
+        future.whenComplete((catalog, e) -> {
+            if (e == null) {
+                current = catalog;
+                return;
+            }
+            GavinsMod.LOGGER.error("Error building the block catalog: " + e.getMessage());
+            synchronized (BlockCatalog.class) {
+                if (pending == future) pending = null;
+            }
+        });
+    }
+
+    /**
+     * Gets the catalog. This never waits for a build, so it can be called on the render thread. If the language
+     * changed since it was built, a new one is built in the background and the old one is returned until it is done.
+     *
+     * @return The block catalog, or null if the first one is still being built.
+     */
+    public static synchronized BlockCatalog get() {
+        var catalog = current;
+        if (catalog == null) {
+            if (pending == null) buildAsync();
+        } else if (!catalog.language.equals(currentLanguage()) && (pending == null || pending.isDone())) {
+            buildAsync();
+        }
+        return catalog;
+    }
+
+    /**
+     * Builds a catalog of the given blocks. Blocks without an item (air, wall torches, crops and such) are left out,
+     * as they can not be drawn in the menu.
+     *
+     * @param blocks     - The blocks to include.
+     * @param translator - Translates a translation key to a name.
+     * @param language   - The language the translator translates to.
+     * @return The catalog.
+     */
+    public static BlockCatalog build(Iterable<Block> blocks, Function<String, String> translator, String language) {
+        var sorted = new ArrayList<Block>();
+        for (var block : blocks)
+            if (block.asItem() != Items.AIR) sorted.add(block);
+        var names = new IdentityHashMap<Block, String>();
+        sorted.forEach(b -> names.put(b, translator.apply(b.getTranslationKey())));
+        sorted.sort(Comparator.comparing(names::get));
+        var array = sorted.toArray(new Block[0]);
+        var nameArray = new String[array.length];
+        for (int i = 0; i < array.length; i++)
+            nameArray[i] = names.get(array[i]);
+        return new BlockCatalog(array, nameArray, language);
+    }
+
+    /**
+     * Finds the blocks whose name or registry path contains the given text, ignoring case.
+     *
+     * @param text   - The text to search for.
+     * @param filter - Only blocks that pass this filter are returned, or null to return all matches.
+     * @return The indexes of the matching blocks, in the order of the catalog.
+     */
+    public int[] search(String text, Predicate<Block> filter) {
+        var query = text.toLowerCase(Locale.ROOT);
+        var result = new IntArrayList();
+        if (query.length() < 3) {
+            for (int i = 0; i < blocks.length; i++)
+                if (searchKeys[i].contains(query) && (filter == null || filter.test(blocks[i]))) result.add(i);
+            return result.toIntArray();
+        }
+        // every match contains every trigram of the query, so only the shortest posting list has to be checked.
+        int[] candidates = null;
+        for (int c = 0; c + 3 <= query.length(); c++) {
+            var posting = trigrams.get(trigram(query, c));
+            if (posting == null) return new int[0];
+            if (candidates == null || posting.length < candidates.length) candidates = posting;
+        }
+        for (var i : candidates)
+            if (searchKeys[i].contains(query) && (filter == null || filter.test(blocks[i]))) result.add(i);
+        return result.toIntArray();
+    }
+
+    /**
+     * Gets the number of blocks in the catalog.
+     *
+     * @return The number of blocks.
+     */
+    public int size() {
+        return blocks.length;
+    }
+
+    /**
+     * Gets the block at the given index.
+     *
+     * @param index - The index.
+     * @return The block.
+     */
+    public Block getBlock(int index) {
+        return blocks[index];
+    }
+
+    /**
+     * Gets the translated name of the block at the given index.
+     *
+     * @param index - The index.
+     * @return The translated name.
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Gets the item stack of the block at the given index. The stack is shared, so it must not be modified.
+     *
+     * @param index - The index.
+     * @return The item stack.
+     */
+    public ItemStack getStack(int index) {
+        return stacks[index];
+    }
+
+    /**
+     * Packs the three characters at the given index of the given text into a single key.
+     *
+     * @param text  - The text.
+     * @param index - The index of the first character.
+     * @return The trigram key.
+     */
+    private static long trigram(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    /**
+     * Gets the code of the language the game is in.
+     *
+     * @return The language code.
+     */
+    private static String currentLanguage() {
+        return MinecraftClient.getInstance().getLanguageManager().getLanguage().getCode();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.mods.render.xray;
+
+import net.minecraft.block.Block;
+import net.minecraft.util.registry.Registry;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * @author gt3ch1
+ * @version 7/9/2022
+ * An immutable lookup of the blocks that are visible with xray, stored as a bitset indexed by the raw block id.
+ * Since it never changes after it is built, it is safe to read from the chunk builder threads without locking.
+ */
+public final class XrayBlockTable {
+
+    /**
+     * A table that contains no blocks.
+     */
+    public static final XrayBlockTable EMPTY = new XrayBlockTable(new long[0]);
+
+    /**
+     * The bits of the table, where bit n is set if the block with raw id n is visible.
+     */
+    private final long[] bits;
+
+    /**
+     * Creates a new table from the given bits.
+     *
+     * @param bits - The bits of the table.
+     */
+    private XrayBlockTable(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Builds a new table from the given block names (ie, "Block{minecraft:diamond_ore}").
+     *
+     * @param blockNames - The names of the blocks to include.
+     * @return The new table.
+     */
+    public static XrayBlockTable of(Collection<String> blockNames) {
+        var names = new HashSet<>(blockNames);
+        var bits = new long[(Registry.BLOCK.size() + 63) >>> 6];
+        for (Block block : Registry.BLOCK) {
+            if (!names.contains(block.toString())) continue;
+            var id = Registry.BLOCK.getRawId(block);
+            bits[id >>> 6] |= 1L << id;
+        }
+        return new XrayBlockTable(bits);
+    }
+
+    /**
+     * Builds a new table containing the blocks that are in exactly one of the given tables, that is, the blocks
+     * whose visibility differs between them.
+     *
+     * @param a - The first table.
+     * @param b - The second table.
+     * @return The table of changed blocks.
+     */
+    public static XrayBlockTable changedBetween(XrayBlockTable a, XrayBlockTable b) {
+        var bits = new long[Math.max(a.bits.length, b.bits.length)];
+        for (int i = 0; i < bits.length; i++) {
+            var wordA = i < a.bits.length ? a.bits[i] : 0;
+            var wordB = i < b.bits.length ? b.bits[i] : 0;
+            bits[i] = wordA ^ wordB;
+        }
+        return new XrayBlockTable(bits);
+    }
+
+    /**
+     * Gets whether this table contains no blocks.
+     *
+     * @return Whether this table is empty.
+     */
+    public boolean isEmpty() {
+        for (long word : bits)
+            if (word != 0) return false;
+        return true;
+    }
+
+    /**
+     * Gets whether the given block is in this table.
+     *
+     * @param block - The block to check.
+     * @return Whether the block is in this table.
+     */
+    public boolean contains(Block block) {
+        return contains(Registry.BLOCK.getRawId(block));
+    }
+
+    /**
+     * Gets whether the block with the given raw id is in this table.
+     *
+     * @param rawId - The raw id of the block.
+     * @return Whether the block is in this table.
+     */
+    public boolean contains(int rawId) {
+        var word = rawId >>> 6;
+        return rawId >= 0 && word < bits.length && (bits[word] & (1L << rawId)) != 0;
+    }
+}
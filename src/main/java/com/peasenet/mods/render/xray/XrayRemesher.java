@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.mods.render.xray;
+
+import com.peasenet.main.GavinsMod;
+import com.peasenet.main.GavinsModClient;
+import com.peasenet.util.jfr.JfrEvents;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.math.ChunkSectionPos;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * @author gt3ch1
+ * @version 7/9/2022
+ * Rebuilds chunk sections a few at a time, starting at the camera and moving outwards in rings. The old meshes stay
+ * visible until each section is rebuilt, so the area around the player changes within a few frames instead of the
+ * whole world going blank while everything is rebuilt at once.
+ */
+public final class XrayRemesher {
+
+    /**
+     * The maximum number of sections to schedule for a rebuild each frame.
+     */
+    private static final int SECTIONS_PER_FRAME = 48;
+
+    /**
+     * The sections that still have to be scheduled, as packed section positions, nearest last.
+     */
+    private static final LongArrayList queue = new LongArrayList();
+
+    /**
+     * The sections that are currently in the queue, used to avoid queueing a section twice.
+     */
+    private static final LongOpenHashSet queued = new LongOpenHashSet();
+
+    /**
+     * The number of sections queued since the queue was last empty.
+     */
+    private static int total = 0;
+
+    /**
+     * The time the first section of the current remesh was queued, in nanoseconds.
+     */
+    private static long startTime = 0;
+
+    /**
+     * The number of frames the current remesh has been running for.
+     */
+    private static int frames = 0;
+
+    private XrayRemesher() {
+    }
+
+    /**
+     * Queues every loaded, non-empty chunk section for a rebuild.
+     */
+    public static void remeshAll() {
+        enqueue(null);
+    }
+
+    /**
+     * Queues every loaded chunk section that contains any of the given blocks for a rebuild.
+     *
+     * @param blocks - The blocks to look for, or null to queue every non-empty section.
+     */
+    public static void enqueue(@Nullable XrayBlockTable blocks) {
+        var client = GavinsModClient.getMinecraftClient();
+        var world = client.getWorld();
+        var player = client.getPlayer();
+        if (world == null || player == null) return;
+        if (blocks != null && blocks.isEmpty()) return;
+        var queuedBefore = queue.size();
+        var radius = client.getOptions().getViewDistance().getValue() + 1;
+        var center = ChunkSectionPos.from(player.getBlockPos());
+        for (int x = center.getX() - radius; x <= center.getX() + radius; x++) {
+            for (int z = center.getZ() - radius; z <= center.getZ() + radius; z++) {
+                var chunk = world.getChunkManager().getWorldChunk(x, z, false);
+                if (chunk == null) continue;
+                if (blocks != null) {
+                    XraySections.forEachSection(chunk, blocks, XrayRemesher::add);
+                    continue;
+                }
+                var sections = chunk.getSectionArray();
+                for (int i = 0; i < sections.length; i++) {
+                    if (!sections[i].isEmpty()) add(x, chunk.sectionIndexToCoord(i), z);
+                }
+            }
+        }
+        sortByDistance(center);
+        JfrEvents.xrayReload(blocks == null ? "all" : "blocks", queue.size() - queuedBefore);
+    }
+
+    /**
+     * Adds the given section to the queue, if it is not already queued.
+     *
+     * @param sectionX - The x coordinate of the section.
+     * @param sectionY - The y coordinate of the section.
+     * @param sectionZ - The z coordinate of the section.
+     */
+    private static void add(int sectionX, int sectionY, int sectionZ) {
+        var pos = ChunkSectionPos.asLong(sectionX, sectionY, sectionZ);
+        if (!queued.add(pos)) return;
+        if (total == 0) {
+            startTime = System.nanoTime();
+            frames = 0;
+        }
+        queue.add(pos);
+        total++;
+    }
+
+    /**
+     * Sorts the queue so that the sections closest to the given center are scheduled first. Sections are ordered by
+     * the horizontal ring they are in, then by their vertical distance.
+     *
+     * @param center - The section the camera is in.
+     */
+    private static void sortByDistance(ChunkSectionPos center) {
+        queue.sort((a, b) -> Long.compare(distance(b, center), distance(a, center)));
+    }
+
+    /**
+     * Gets the ring distance of the given section from the center, used as the sorting key.
+     *
+     * @param pos    - The packed section position.
+     * @param center - The section the camera is in.
+     * @return The distance, with the horizontal ring as the most significant part.
+     */
+    private static long distance(long pos, ChunkSectionPos center) {
+        var ring = Math.max(Math.abs(ChunkSectionPos.unpackX(pos) - center.getX()), Math.abs(ChunkSectionPos.unpackZ(pos) - center.getZ()));
+        var dy = Math.abs(ChunkSectionPos.unpackY(pos) - center.getY());
+        return ((long) ring << 32) | dy;
+    }
+
+    /**
+     * Schedules the next few sections for a rebuild. Called once per frame.
+     */
+    public static void onFrame() {
+        if (queue.isEmpty()) return;
+        var client = GavinsModClient.getMinecraftClient();
+        var worldRenderer = client.getWorldRenderer();
+        if (client.getWorld() == null || worldRenderer == null) {
+            clear();
+            return;
+        }
+        frames++;
+        for (int i = 0; i < SECTIONS_PER_FRAME && !queue.isEmpty(); i++) {
+            var pos = queue.removeLong(queue.size() - 1);
+            queued.remove(pos);
+            worldRenderer.scheduleBlockRender(ChunkSectionPos.unpackX(pos), ChunkSectionPos.unpackY(pos), ChunkSectionPos.unpackZ(pos));
+        }
+        if (queue.isEmpty()) {
+            // measured from the time the first section was queued, over the same frames the progress is shown for.
+            var millis = (System.nanoTime() - startTime) / 1_000_000;
+            GavinsMod.LOGGER.info("Xray remeshed " + total + " sections over " + frames + " frames in " + millis + "ms.");
+            total = 0;
+        }
+    }
+
+    /**
+     * Drops every queued section.
+     */
+    public static void clear() {
+        queue.clear();
+        queued.clear();
+        total = 0;
+        frames = 0;
+    }
+
+    /**
+     * Gets whether there are sections left to schedule.
+     *
+     * @return Whether a remesh is in progress.
+     */
+    public static boolean isRunning() {
+        return !queue.isEmpty();
+    }
+
+    /**
+     * Gets how much of the current remesh has been scheduled.
+     *
+     * @return The progress, from 0 to 1.
+     */
+    public static float getProgress() {
+        if (total == 0) return 1f;
+        return 1f - (float) queue.size() / total;
+    }
+}
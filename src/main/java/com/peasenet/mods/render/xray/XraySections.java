@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.mods.render.xray;
+
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * @author gt3ch1
+ * @version 7/9/2022
+ * Finds the chunk sections that are affected by a change in the xray block list, so that only those sections
+ * have to be rebuilt instead of the whole world.
+ */
+public final class XraySections {
+
+    private XraySections() {
+    }
+
+    /**
+     * A callback for every chunk section that contains a changed block.
+     */
+    @FunctionalInterface
+    public interface SectionConsumer {
+        /**
+         * Accepts the section at the given section coordinates.
+         *
+         * @param sectionX - The x coordinate of the section.
+         * @param sectionY - The y coordinate of the section.
+         * @param sectionZ - The z coordinate of the section.
+         */
+        void accept(int sectionX, int sectionY, int sectionZ);
+    }
+
+    /**
+     * Gets whether the given section contains any of the blocks in the given table. Only the palette of the section
+     * is checked, so this does not look at each block in the section.
+     *
+     * @param section - The section to check.
+     * @param table   - The blocks to look for.
+     * @return Whether the section may contain any of the blocks.
+     */
+    public static boolean containsAny(ChunkSection section, XrayBlockTable table) {
+        if (section.isEmpty()) return false;
+        return section.getBlockStateContainer().hasAny(state -> table.contains(state.getBlock()));
+    }
+
+    /**
+     * Visits every section of the given chunk that contains any of the blocks in the given table.
+     *
+     * @param chunk    - The chunk to scan.
+     * @param table    - The blocks to look for.
+     * @param consumer - The callback for each matching section.
+     */
+    public static void forEachSection(WorldChunk chunk, XrayBlockTable table, SectionConsumer consumer) {
+        var sections = chunk.getSectionArray();
+        var pos = chunk.getPos();
+        for (int i = 0; i < sections.length; i++) {
+            if (containsAny(sections[i], table))
+                consumer.accept(pos.x, chunk.sectionIndexToCoord(i), pos.z);
+        }
+    }
+}
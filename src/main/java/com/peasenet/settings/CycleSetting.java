@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.settings;
+
+import com.peasenet.gui.elements.GuiCycle;
+import com.peasenet.main.Settings;
+import net.minecraft.text.Text;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * A setting that allows the user to pick one of a fixed list of options. The index of the picked option is stored.
+ */
+public class CycleSetting extends Setting {
+
+    /**
+     * The cycle element that allows the user to change the option.
+     */
+    private final GuiCycle guiCycle;
+
+    /**
+     * The title of the setting, without the current option.
+     */
+    private final Text title;
+
+    /**
+     * The options that can be picked.
+     */
+    private final Text[] options;
+
+    /**
+     * Creates a new cycle setting.
+     *
+     * @param name           - The name of the setting (ie, "combat.killaura.priority").
+     * @param translationKey - The translation key of the setting.
+     * @param options        - The options that can be picked.
+     */
+    public CycleSetting(String name, String translationKey, Text... options) {
+        super(name);
+        this.title = Text.translatable(translationKey);
+        this.options = options;
+        guiCycle = new GuiCycle(90, 10, title, options.length);
+        guiCycle.setCurrentIndex(Math.floorMod(Settings.getInt(name), options.length));
+        updateTitle();
+        guiCycle.setCallback(() -> {
+            updateTitle();
+            Settings.add(name, guiCycle.getCurrentIndex());
+            onClick();
+        });
+    }
+
+    /**
+     * Shows the currently picked option next to the title.
+     */
+    private void updateTitle() {
+        guiCycle.setTitle(title.copy().append(": ").append(options[guiCycle.getCurrentIndex()]));
+    }
+
+    @Override
+    public GuiCycle getGui() {
+        return guiCycle;
+    }
+
+    /**
+     * Gets the index of the currently picked option.
+     *
+     * @return The index of the picked option.
+     */
+    public int getIndex() {
+        return guiCycle.getCurrentIndex();
+    }
+}
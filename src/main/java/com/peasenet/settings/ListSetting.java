@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.settings;
+
+import com.peasenet.gui.elements.GuiVirtualList;
+import net.minecraft.text.Text;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * A setting that shows a list of items in a dropdown, without creating a setting for each item.
+ *
+ * @param <T> The type of the items in the list.
+ */
+public class ListSetting<T> extends Setting {
+
+    /**
+     * The dropdown that shows the items.
+     */
+    private final GuiVirtualList<T> list;
+
+    /**
+     * Creates a new list setting.
+     *
+     * @param width          - The width of the dropdown and its rows.
+     * @param height         - The height of the dropdown and its rows.
+     * @param translationKey - The translation key of the dropdown.
+     * @param visibleRows    - How many rows are shown at once.
+     * @param titleOf        - Gets the title of the row of an item.
+     * @param isOn           - Gets whether the row of an item is checked.
+     * @param onClick        - Called with the item of a row when the row is clicked.
+     */
+    public ListSetting(int width, int height, String translationKey, int visibleRows, Function<T, Text> titleOf,
+                       Predicate<T> isOn, Consumer<T> onClick) {
+        super("none");
+        list = new GuiVirtualList<>(width, height, Text.translatable(translationKey), visibleRows, titleOf, isOn, onClick);
+        list.hide();
+    }
+
+    /**
+     * Sets the items shown in the list.
+     *
+     * @param items - The items.
+     */
+    public void setItems(List<T> items) {
+        list.setItems(items);
+    }
+
+    @Override
+    public GuiVirtualList<T> getGui() {
+        return list;
+    }
+}
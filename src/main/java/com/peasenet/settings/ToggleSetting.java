@@ -113,7 +113,7 @@ public class ToggleSetting extends Setting {
      */
     public void setValue(boolean value) {
         this.value = value;
-        gui.setBackground(value ? Settings.getColor("gui.color.enabled") : Settings.getColor("gui.color.background"));
+        gui.setBackground(value ? Settings.GUI_COLOR_ENABLED.get() : Settings.GUI_COLOR_BACKGROUND.get());
         gui.setState(value);
         if (getName().equals("none"))
             return;
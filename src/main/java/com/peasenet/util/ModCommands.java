@@ -21,8 +21,24 @@
 package com.peasenet.util;
 
 import com.peasenet.main.GavinsMod;
+import com.peasenet.main.GavinsModClient;
 import com.peasenet.main.Mods;
 import com.peasenet.mods.Mod;
+import com.peasenet.mods.Type;
+import com.peasenet.mods.misc.ModProfiler;
+import com.peasenet.util.io.AsyncFileWriter;
+import com.peasenet.util.profiler.Profiler;
+import com.peasenet.util.world.WaypointStore;
+import com.peasenet.util.world.WaypointTransfer;
+import com.peasenet.util.world.WorldSnapshot;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+import net.minecraft.util.Util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * @author gt3ch1
@@ -60,6 +76,24 @@ public class ModCommands {
                 }
             }
         }
+        if (message.startsWith("profiler ")) {
+            return handleProfilerCommand(message.substring("profiler ".length()).trim());
+        }
+        if (message.equals("jfr on") || message.equals("jfr off")) {
+            var enabled = message.endsWith("on");
+            ((ModProfiler) Mods.getMod(Type.PROFILER)).setJfrEnabled(enabled);
+            var player = GavinsModClient.getPlayer();
+            if (player != null)
+                player.sendMessage(Text.literal(Mod.GAVINS_MOD_STRING + "JFR events " + (enabled ? "§a§lenabled" : "§c§ldisabled") + "§r!"), false);
+            return true;
+        }
+        if (message.startsWith("waypoints ")) {
+            return handleWaypointsCommand(message.substring("waypoints ".length()).trim());
+        }
+        if (message.equals("snapshot")) {
+            writeSnapshot();
+            return true;
+        }
         if (message.startsWith("resetgui")) {
             GavinsMod.gui.reset();
             GavinsMod.guiSettings.reset();
@@ -67,4 +101,127 @@ public class ModCommands {
         }
         return false;
     }
+
+    /**
+     * Handles the ".profiler dump" and ".profiler reset" commands. Dumping writes the summary of every profiled
+     * section to the log and to the chat.
+     *
+     * @param argument - The argument of the command.
+     * @return Whether the command was handled.
+     */
+    private static boolean handleProfilerCommand(String argument) {
+        switch (argument) {
+            case "dump" -> {
+                var summaries = Profiler.summarize();
+                var player = GavinsModClient.getPlayer();
+                if (summaries.isEmpty() && player != null)
+                    player.sendMessage(Text.literal(Mod.GAVINS_MOD_STRING + "No profiler samples, enable the profiler first."), false);
+                for (var summary : summaries) {
+                    GavinsMod.LOGGER.info("[profiler] " + summary.format() + " (" + summary.samples() + " samples)");
+                    if (player != null) player.sendMessage(Text.literal(summary.format()), false);
+                }
+                return true;
+            }
+            case "reset" -> {
+                Profiler.reset();
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Handles the ".waypoints import <file>" and ".waypoints export <file>" commands. Files are looked up in
+     * mods/gavinsmod/waypoints unless an absolute path is given. Imports are read on a worker of the game's IO pool,
+     * so a large file does not hold up the ordered writes of AsyncFileWriter, and exports are written on its thread.
+     *
+     * @param argument - The argument of the command.
+     * @return Whether the command was handled.
+     */
+    private static boolean handleWaypointsCommand(String argument) {
+        var split = argument.split(" ", 2);
+        if (split.length != 2 || (!split[0].equals("import") && !split[0].equals("export"))) return false;
+        var client = GavinsModClient.getMinecraftClient();
+        var dir = client.getRunDirectory().toPath().resolve("mods").resolve("gavinsmod").resolve("waypoints");
+        var file = dir.resolve(split[1].trim());
+        if (!WaypointTransfer.isSupported(file)) {
+            sendMessage("Waypoint files must end with .csv or .jsonl");
+            return true;
+        }
+        if (split[0].equals("import")) {
+            Util.getIoWorkerExecutor().execute(() -> {
+                try {
+                    var result = WaypointTransfer.read(file);
+                    MinecraftClient.getInstance().execute(() -> {
+                        WaypointStore.addAll(result.waypoints());
+                        Mods.getMod("waypoints").reloadSettings();
+                        sendMessage("Imported " + result.waypoints().size() + " waypoints from " + file.getFileName()
+                                + ", skipped " + result.invalid() + " invalid lines.");
+                    });
+                } catch (IOException e) {
+                    GavinsMod.LOGGER.error("Error importing waypoints.");
+                    GavinsMod.LOGGER.error(e.getMessage());
+                    MinecraftClient.getInstance().execute(() -> sendMessage("Could not read " + file.getFileName()));
+                }
+            });
+        } else {
+            var waypoints = WaypointStore.getAll();
+            var lines = WaypointTransfer.format(file, waypoints);
+            var count = waypoints.size();
+            AsyncFileWriter.execute(() -> {
+                try {
+                    Files.createDirectories(dir);
+                    WaypointTransfer.write(file, lines);
+                    MinecraftClient.getInstance().execute(() -> sendMessage("Exported " + count + " waypoints to " + file.getFileName()));
+                } catch (IOException e) {
+                    GavinsMod.LOGGER.error("Error exporting waypoints.");
+                    GavinsMod.LOGGER.error(e.getMessage());
+                    MinecraftClient.getInstance().execute(() -> sendMessage("Could not write " + file.getFileName()));
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Sends the given message to the player, if there is one.
+     *
+     * @param message - The message to send.
+     */
+    private static void sendMessage(String message) {
+        var player = GavinsModClient.getPlayer();
+        if (player != null) player.sendMessage(Text.literal(Mod.GAVINS_MOD_STRING + message), false);
+    }
+
+    /**
+     * Captures a snapshot of what the esp and tracer renderer reads from the world, and writes it to
+     * mods/gavinsmod/snapshots so it can be replayed by the benchmarks. The world is read on the client thread and
+     * the file is written on the IO thread.
+     */
+    private static void writeSnapshot() {
+        var client = GavinsModClient.getMinecraftClient();
+        var player = client.getPlayer();
+        if (player == null) return;
+        var radius = client.getOptions().getViewDistance().getValue() * 16.0;
+        var snapshot = WorldSnapshot.capture(player, radius);
+        var dir = client.getRunDirectory().toPath().resolve("mods").resolve("gavinsmod").resolve("snapshots");
+        var file = dir.resolve("snapshot-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".gmss");
+        AsyncFileWriter.execute(() -> {
+            try {
+                Files.createDirectories(dir);
+                snapshot.write(file);
+            } catch (IOException e) {
+                GavinsMod.LOGGER.error("Error writing world snapshot.");
+                GavinsMod.LOGGER.error(e.getMessage());
+                MinecraftClient.getInstance().execute(() -> sendMessage("Could not write " + file.getFileName()));
+                return;
+            }
+            var message = "Saved " + snapshot.getEntityCount() + " entities, " + snapshot.getContainerCount() + " containers and "
+                    + snapshot.getWaypointCount() + " waypoints to " + file.getFileName();
+            GavinsMod.LOGGER.info(message);
+            MinecraftClient.getInstance().execute(() -> sendMessage(message));
+        });
+    }
 }
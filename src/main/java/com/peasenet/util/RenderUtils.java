@@ -23,24 +23,27 @@ package com.peasenet.util;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.peasenet.main.GavinsMod;
 import com.peasenet.main.GavinsModClient;
-import com.peasenet.main.Mods;
 import com.peasenet.main.Settings;
+import com.peasenet.mixinterface.IFrustum;
 import com.peasenet.mixinterface.ISimpleOption;
 import com.peasenet.mods.Type;
-import com.peasenet.mods.render.waypoints.Waypoint;
 import com.peasenet.util.color.Color;
+import com.peasenet.util.jfr.JfrEvents;
 import com.peasenet.util.math.BoxD;
+import com.peasenet.util.profiler.Profiler;
+import com.peasenet.util.profiler.ProfilerSection;
+import com.peasenet.util.render.OffscreenIndicators;
+import com.peasenet.util.render.StaticEspBuffer;
+import com.peasenet.util.render.VertexEmitter;
+import com.peasenet.util.world.ContainerIndex;
+import com.peasenet.util.world.EntityIndex;
+import com.peasenet.util.world.WaypointStore;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
-import net.minecraft.block.entity.ChestBlockEntity;
-import net.minecraft.block.entity.EnderChestBlockEntity;
-import net.minecraft.block.entity.ShulkerBoxBlockEntity;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.render.*;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.client.world.ClientWorld;
-import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityType;
 import net.minecraft.util.math.*;
 import org.lwjgl.opengl.GL11;
 
@@ -51,9 +54,9 @@ import org.lwjgl.opengl.GL11;
  */
 public class RenderUtils {
     /**
-     * How many chunks away to render things.
+     * How many chunks away to render things. Updated from the view distance at the start of every frame.
      */
-    private static int CHUNK_RADIUS = GavinsModClient.getMinecraftClient().getOptions().getViewDistance().getValue();
+    private static int CHUNK_RADIUS = 0;
 
 
     /**
@@ -61,6 +64,29 @@ public class RenderUtils {
      */
     private static double LAST_GAMMA;
 
+    /**
+     * The profiler sections of the phases of #afterEntities.
+     */
+    private static final ProfilerSection CHESTS_SECTION = Profiler.section("render.chests");
+    private static final ProfilerSection ENTITIES_SECTION = Profiler.section("render.entities");
+    private static final ProfilerSection WAYPOINTS_SECTION = Profiler.section("render.waypoints");
+    private static final ProfilerSection DRAW_SECTION = Profiler.section("render.draw");
+
+    /**
+     * The emitter used to write the esp boxes and tracers of #afterEntities.
+     */
+    private static final VertexEmitter EMITTER = new VertexEmitter();
+
+    /**
+     * The emitter used by #renderSingleLine, kept apart so it never clobbers the matrix of EMITTER.
+     */
+    private static final VertexEmitter LINE_EMITTER = new VertexEmitter();
+
+    /**
+     * The number of entities, container tracers and waypoint tracers drawn by the current pass of #afterEntities.
+     */
+    private static int entityCount, containerCount, waypointCount;
+
     private RenderUtils() {
     }
 
@@ -75,14 +101,8 @@ public class RenderUtils {
      */
     public static void renderSingleLine(MatrixStack stack, VertexConsumer buffer, Vec3f playerPos,
                                         Vec3f boxPos, Color color) {
-        Vec3f normal = new Vec3f(boxPos.getX() - playerPos.getX(), boxPos.getY() - playerPos.getY(), boxPos.getZ() - playerPos.getZ());
-        normal.normalize();
-        Matrix4f matrix4f = stack.peek().getPositionMatrix();
-        Matrix3f matrix3f = stack.peek().getNormalMatrix();
-        buffer.vertex(matrix4f, playerPos.getX(), playerPos.getY(), playerPos.getZ()).color(color.getRed(), color.getGreen(), color.getBlue(), 0.5f)
-                .normal(matrix3f, normal.getX(), normal.getY(), normal.getZ()).next();
-        buffer.vertex(matrix4f, boxPos.getX(), boxPos.getY(), boxPos.getZ()).color(color.getRed(), color.getGreen(), color.getBlue(), 0.5f)
-                .normal(matrix3f, normal.getX(), normal.getY(), normal.getZ()).next();
+        LINE_EMITTER.begin(stack).emitLine(buffer, playerPos.getX(), playerPos.getY(), playerPos.getZ(),
+                boxPos.getX(), boxPos.getY(), boxPos.getZ(), VertexEmitter.pack(color, 0.5f));
     }
 
     /**
@@ -100,6 +120,10 @@ public class RenderUtils {
         float delta = context.tickDelta();
         Camera mainCamera = minecraft.gameRenderer.getCamera();
         Vec3d camera = mainCamera.getPos();
+        Frustum frustum = context.frustum();
+        OffscreenIndicators.clear();
+        var event = JfrEvents.beginEspPass();
+        entityCount = containerCount = waypointCount = 0;
 
         setupRenderSystem();
 
@@ -110,39 +134,84 @@ public class RenderUtils {
 
         RenderSystem.applyModelViewMatrix();
         stack.translate(-camera.x, -camera.y, -camera.z);
+        EMITTER.begin(stack);
+        var cullingFrustum = (IFrustum) frustum;
         assert player != null;
         Vec3f playerPos = PlayerUtils.getNewPlayerPosition(delta, mainCamera);
         assert level != null;
         int chunk_x = player.getChunkPos().x;
         int chunk_z = player.getChunkPos().z;
 
-        drawChestMods(level, stack, buffer, playerPos, chunk_x, chunk_z);
-        drawEntityMods(level, player, stack, delta, buffer, playerPos);
-        drawWaypoint(stack, buffer, playerPos);
+        var waypointsEnabled = GavinsMod.isEnabled(Type.WAYPOINT);
+        var start = Profiler.start();
+        StaticEspBuffer.update(GavinsMod.isEnabled(Type.CHEST_ESP), waypointsEnabled, chunk_x, chunk_z, CHUNK_RADIUS);
+        drawChestMods(buffer, playerPos, chunk_x, chunk_z, mainCamera, cullingFrustum);
+        Profiler.end(CHESTS_SECTION, start);
+        start = Profiler.start();
+        drawEntityMods(player, delta, buffer, playerPos, mainCamera, cullingFrustum);
+        Profiler.end(ENTITIES_SECTION, start);
+        if (waypointsEnabled) {
+            start = Profiler.start();
+            drawWaypointTracers(buffer, playerPos, mainCamera, cullingFrustum);
+            Profiler.end(WAYPOINTS_SECTION, start);
+        }
+        start = Profiler.start();
         tessellator.draw();
         stack.pop();
+        StaticEspBuffer.draw(stack, camera);
+        Profiler.end(DRAW_SECTION, start);
 
         resetRenderSystem();
+        if (event != null) {
+            event.entities = entityCount;
+            event.containers = containerCount;
+            event.waypoints = waypointCount;
+            JfrEvents.commit(event);
+        }
     }
 
     /**
-     * Draws the waypoint.
+     * Draws the tracers of the waypoints. Waypoint boxes are drawn by the static ESP buffer.
      *
      * @param stack     - The matrix stack to use.
      * @param buffer    - The buffer to write to.
      * @param playerPos - The position of the player.
+     * @param camera    - The camera.
+     * @param frustum   - The camera frustum, or null if there is none.
      */
-    private static void drawWaypoint(MatrixStack stack, BufferBuilder buffer, Vec3f playerPos) {
-        if (!Mods.getMod("waypoints").isActive())
+    private static void drawWaypointTracers(BufferBuilder buffer, Vec3f playerPos, Camera camera, IFrustum frustum) {
+        for (var w : WaypointStore.getSnapshot().getTracers()) {
+            waypointCount++;
+            drawTracer(buffer, playerPos, w.getX(), w.getY(), w.getZ(), w.getX() + 1, w.getY() + 1, w.getZ() + 1, w.getColor(), camera, frustum);
+        }
+    }
+
+    /**
+     * Draws a tracer towards the center of the given box. If off-screen markers are enabled and the box is outside of
+     * the frustum, a marker is added at the edge of the screen instead.
+     *
+     * @param buffer    - The buffer to write to.
+     * @param playerPos - The position of the player.
+     * @param minX      - The minimum x coordinate of the box.
+     * @param minY      - The minimum y coordinate of the box.
+     * @param minZ      - The minimum z coordinate of the box.
+     * @param maxX      - The maximum x coordinate of the box.
+     * @param maxY      - The maximum y coordinate of the box.
+     * @param maxZ      - The maximum z coordinate of the box.
+     * @param color     - The color of the tracer.
+     * @param camera    - The camera.
+     * @param frustum   - The camera frustum, or null if there is none.
+     */
+    private static void drawTracer(BufferBuilder buffer, Vec3f playerPos, double minX, double minY, double minZ,
+                                   double maxX, double maxY, double maxZ, Color color, Camera camera, IFrustum frustum) {
+        var centerX = (minX + maxX) / 2;
+        var centerY = (minY + maxY) / 2;
+        var centerZ = (minZ + maxZ) / 2;
+        if (frustum != null && Settings.TRACER_OFFSCREEN.get() && !frustum.isBoxVisible(minX, minY, minZ, maxX, maxY, maxZ)) {
+            OffscreenIndicators.add(camera, centerX, centerY, centerZ, color);
             return;
-        Settings.getWaypoints().stream().filter(Waypoint::isEnabled).forEach(w -> {
-            Box aabb = new Box(new BlockPos(w.getX(), w.getY(), w.getZ()));
-            Vec3f boxPos = new Vec3f(aabb.getCenter());
-            if (w.isTracerEnabled())
-                renderSingleLine(stack, buffer, playerPos, boxPos, w.getColor());
-            if (w.isEspEnabled())
-                drawBox(stack, buffer, aabb, w.getColor());
-        });
+        }
+        EMITTER.emitLine(buffer, playerPos.getX(), playerPos.getY(), playerPos.getZ(), centerX, centerY, centerZ, VertexEmitter.pack(color, 0.5f));
     }
 
     /**
@@ -165,119 +234,100 @@ public class RenderUtils {
     }
 
     /**
-     * Draws Chest ESPs and tracers.
+     * Draws chest tracers. Chest ESP boxes are drawn by the static ESP buffer.
      *
-     * @param level     The world.
-     * @param stack     The matrix stack.
      * @param buffer    The buffer to write to.
      * @param playerPos The player's position.
      * @param chunk_x   The player's chunk x.
      * @param chunk_z   The player's chunk z.
+     * @param camera    The camera.
+     * @param frustum   The camera frustum, or null if there is none.
      */
-    private static void drawChestMods(ClientWorld level, MatrixStack stack, BufferBuilder buffer, Vec3f playerPos, int chunk_x, int chunk_z) {
-        if (GavinsMod.isEnabled(Type.CHEST_ESP) || GavinsMod.isEnabled(Type.CHEST_TRACER)) {
-            // For each chunk in the CHUNK_RADIUS centered around chunk_x and chunk_z, draw a chest ESP or tracer.
-            for (int x = -CHUNK_RADIUS; x <= CHUNK_RADIUS; x++) {
-                for (int z = -CHUNK_RADIUS; z <= CHUNK_RADIUS; z++) {
-                    int chunk_x_ = chunk_x + x;
-                    int chunk_z_ = chunk_z + z;
-                    if (level.getChunk(chunk_x_, chunk_z_) != null) {
-                        level.getChunk(chunk_x_, chunk_z_).getBlockEntities().forEach((blockPos, blockEntity) -> {
-                                    if (blockEntity instanceof ChestBlockEntity || blockEntity instanceof EnderChestBlockEntity ||
-                                            blockEntity instanceof ShulkerBoxBlockEntity) {
-                                        Box aabb = new Box(blockPos);
-                                        Vec3f boxPos = new Vec3f(aabb.getCenter());
-                                        if (GavinsMod.isEnabled(Type.CHEST_ESP))
-                                            drawBox(stack, buffer, aabb, Settings.getColor("esp.chest.color"));
-                                        if (GavinsMod.isEnabled(Type.CHEST_TRACER)) {
-                                            renderSingleLine(stack, buffer, playerPos, boxPos, Settings.getColor("tracer.chest.color"));
-                                        }
-                                    }
-                                }
-                        );
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Draws a box on the world.
-     *
-     * @param stack  The matrix stack.
-     * @param buffer The buffer to write to.
-     * @param aabb   The box to draw.
-     * @param c      The color to draw the box in.
-     */
-    private static void drawBox(MatrixStack stack, BufferBuilder buffer, Box aabb, Color c) {
-        WorldRenderer.drawBox(stack, buffer, aabb, c.getRed(), c.getGreen(), c.getBlue(), 1f);
+    private static void drawChestMods(BufferBuilder buffer, Vec3f playerPos, int chunk_x, int chunk_z, Camera camera, IFrustum frustum) {
+        if (!GavinsMod.isEnabled(Type.CHEST_TRACER)) return;
+        var tracerColor = Settings.TRACER_CHEST_COLOR.get();
+        // walk the container index, skipping containers outside of the CHUNK_RADIUS centered around chunk_x and chunk_z.
+        ContainerIndex.forEach((x, y, z, type) -> {
+            if (Math.abs((x >> 4) - chunk_x) > CHUNK_RADIUS || Math.abs((z >> 4) - chunk_z) > CHUNK_RADIUS) return;
+            containerCount++;
+            drawTracer(buffer, playerPos, x, y, z, x + 1, y + 1, z + 1, tracerColor, camera, frustum);
+        });
     }
 
     /**
-     * Draws the Entity based ESP's and tracers.
+     * Draws the Entity based ESP's and tracers, using the entities in the entity index.
      *
-     * @param level     The world.
      * @param player    The player.
-     * @param stack     The matrix stack.
      * @param delta     The change in time.
      * @param buffer    The buffer to write to.
      * @param playerPos The player's position.
+     * @param camera    The camera.
+     * @param frustum   The camera frustum, or null if there is none. Boxes outside of it are not drawn.
      */
-    private static void drawEntityMods(ClientWorld level, ClientPlayerEntity player, MatrixStack stack,
-                                       float delta, BufferBuilder buffer, Vec3f playerPos) {
-        level.getEntities().forEach(e -> {
-            if ((e.squaredDistanceTo(player) > 64 * CHUNK_RADIUS * 16) || player == e)
-                return;
-
-            EntityType<?> type = e.getType();
-
-            Box aabb = getEntityBox(delta, e, type);
-            Vec3f boxPos = new Vec3f(aabb.getCenter());
-            if (type == EntityType.ITEM) {
-                if (GavinsMod.isEnabled(Type.ENTITY_ITEM_ESP))
-                    drawBox(stack, buffer, aabb, Settings.getColor("esp.item.color"));
-                if (GavinsMod.isEnabled(Type.ENTITY_ITEM_TRACER))
-                    renderSingleLine(stack, buffer, playerPos, boxPos, Settings.getColor("tracer.item.color"));
-                return;
-            }
-
-            if (type == EntityType.PLAYER) {
-                if (GavinsMod.isEnabled(Type.ENTITY_PLAYER_ESP))
-                    drawBox(stack, buffer, aabb, Settings.getColor("esp.player.color"));
-                if (GavinsMod.isEnabled(Type.ENTITY_PLAYER_TRACER))
-                    renderSingleLine(stack, buffer, playerPos, boxPos, Settings.getColor("tracer.player.color"));
-                return;
+    private static void drawEntityMods(ClientPlayerEntity player, float delta, BufferBuilder buffer, Vec3f playerPos,
+                                       Camera camera, IFrustum frustum) {
+        var itemEsp = GavinsMod.isEnabled(Type.ENTITY_ITEM_ESP);
+        var itemTracer = GavinsMod.isEnabled(Type.ENTITY_ITEM_TRACER);
+        var playerEsp = GavinsMod.isEnabled(Type.ENTITY_PLAYER_ESP);
+        var playerTracer = GavinsMod.isEnabled(Type.ENTITY_PLAYER_TRACER);
+        var mobEsp = GavinsMod.isEnabled(Type.MOB_ESP);
+        var mobTracer = GavinsMod.isEnabled(Type.MOB_TRACER);
+        var categories = 0;
+        if (itemEsp || itemTracer) categories |= 1 << EntityIndex.ITEM;
+        if (playerEsp || playerTracer) categories |= 1 << EntityIndex.PLAYER;
+        if (mobEsp || mobTracer) categories |= (1 << EntityIndex.HOSTILE) | (1 << EntityIndex.PEACEFUL);
+        var radius = Math.sqrt(64 * CHUNK_RADIUS * 16);
+        EntityIndex.forEachNear(player.getX(), player.getY(), player.getZ(), radius, categories, (e, category, squaredDistance) -> {
+            entityCount++;
+            // the interpolated bounding box of the entity, the same as EntityType#createSimpleBoundingBox.
+            var type = e.getType();
+            var halfWidth = type.getWidth() / 2.0;
+            var x = e.prevX + (e.getX() - e.prevX) * delta;
+            var y = e.prevY + (e.getY() - e.prevY) * delta;
+            var z = e.prevZ + (e.getZ() - e.prevZ) * delta;
+            var minX = x - halfWidth;
+            var minZ = z - halfWidth;
+            var maxX = x + halfWidth;
+            var maxY = y + type.getHeight();
+            var maxZ = z + halfWidth;
+            var visible = frustum == null || frustum.isBoxVisible(minX, y, minZ, maxX, maxY, maxZ);
+            Color espColor;
+            Color tracerColor;
+            boolean esp;
+            boolean tracer;
+            switch (category) {
+                case EntityIndex.ITEM -> {
+                    esp = itemEsp;
+                    tracer = itemTracer;
+                    espColor = Settings.ESP_ITEM_COLOR.get();
+                    tracerColor = Settings.TRACER_ITEM_COLOR.get();
+                }
+                case EntityIndex.PLAYER -> {
+                    esp = playerEsp;
+                    tracer = playerTracer;
+                    espColor = Settings.ESP_PLAYER_COLOR.get();
+                    tracerColor = Settings.TRACER_PLAYER_COLOR.get();
+                }
+                default -> {
+                    var peaceful = category == EntityIndex.PEACEFUL;
+                    esp = mobEsp;
+                    tracer = mobTracer;
+                    espColor = peaceful ? Settings.ESP_MOB_PEACEFUL_COLOR.get() : Settings.ESP_MOB_HOSTILE_COLOR.get();
+                    tracerColor = peaceful ? Settings.TRACER_MOB_PEACEFUL_COLOR.get() : Settings.TRACER_MOB_HOSTILE_COLOR.get();
+                }
             }
-
-            var espColor = type.getSpawnGroup().isPeaceful() ? Settings.getColor("esp.mob.peaceful.color") : Settings.getColor("esp.mob.hostile.color");
-            var tracerColor = type.getSpawnGroup().isPeaceful() ? Settings.getColor("tracer.mob.peaceful.color") : Settings.getColor("tracer.mob.hostile.color");
-            if (GavinsMod.isEnabled(Type.MOB_ESP))
-                drawBox(stack, buffer, aabb, espColor);
-            if (GavinsMod.isEnabled(Type.MOB_TRACER))
-                renderSingleLine(stack, buffer, playerPos, boxPos, tracerColor);
+            if (visible && esp)
+                EMITTER.emitBox(buffer, minX, y, minZ, maxX, maxY, maxZ, VertexEmitter.pack(espColor, 1f));
+            if (tracer)
+                drawTracer(buffer, playerPos, minX, y, minZ, maxX, maxY, maxZ, tracerColor, camera, frustum);
         });
     }
 
-    /**
-     * Gets the bounding box of an entity.
-     *
-     * @param delta The delta time.
-     * @param e     The entity.
-     * @param type  The entity type.
-     * @return The bounding box of the entity.
-     */
-    private static Box getEntityBox(float delta, Entity e, EntityType<?> type) {
-        double x = e.prevX + (e.getX() - e.prevX) * delta;
-        double y = e.prevY + (e.getY() - e.prevY) * delta;
-        double z = e.prevZ + (e.getZ() - e.prevZ) * delta;
-        return type.createSimpleBoundingBox(x, y, z);
-    }
-
     /**
      * Sets the gamma of the game to the full bright value of 10000.0 while storing the last gamma value.
      */
     public static void setHighGamma() {
-        if (Settings.getBool("render.fullbright.gammafade")) {
+        if (Settings.RENDER_FULLBRIGHT_GAMMAFADE.get()) {
             fadeGammaUp();
         } else {
             setGamma(64.0);
@@ -288,7 +338,7 @@ public class RenderUtils {
      * Resets the gamma to the players last configured value.
      */
     public static void setLowGamma() {
-        if (Settings.getBool("render.fullbright.gammafade")) {
+        if (Settings.RENDER_FULLBRIGHT_GAMMAFADE.get()) {
             fadeGammaDown();
         } else {
             setGamma(LAST_GAMMA);
@@ -406,6 +456,29 @@ public class RenderUtils {
         Tessellator.getInstance().draw();
     }
 
+    /**
+     * Draws a bar graph on screen in a single batch. Bar i is drawn one pixel wide at x + i, growing up from the bottom.
+     *
+     * @param acColor     - The color of the bars as a 4 point float array.
+     * @param x           - The x coordinate of the first bar.
+     * @param bottom      - The y coordinate of the bottom of the bars.
+     * @param heights     - The height of each bar.
+     * @param count       - The number of bars to draw.
+     * @param matrixStack - The matrix stack used to draw on screen.
+     */
+    public static void drawBars(float[] acColor, int x, int bottom, int[] heights, int count, MatrixStack matrixStack) {
+        if (count == 0) return;
+        RenderSystem.setShader(GameRenderer::getPositionShader);
+        RenderSystem.enableBlend();
+        var matrix = matrixStack.peek().getPositionMatrix();
+        var bufferBuilder = Tessellator.getInstance().getBuffer();
+        RenderSystem.setShaderColor(acColor[0], acColor[1], acColor[2], 1f);
+        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION);
+        for (int i = 0; i < count; i++)
+            drawBox(x + i, bottom - heights[i], x + i + 1, bottom, matrix, bufferBuilder);
+        Tessellator.getInstance().draw();
+    }
+
     /**
      * Draws a box from the given points
      *
@@ -44,6 +44,11 @@ public class Color implements Serializable {
      */
     private final int blue;
 
+    /**
+     * The cached float array value of this color, created the first time it is requested.
+     */
+    private transient float[] floatArray;
+
     /**
      * Creates a new RGBA color. Must be between 0 and 255.
      *
@@ -95,12 +100,15 @@ public class Color implements Serializable {
     }
 
     /**
-     * Gets the float array value of this color. values range from 0 to 1.
+     * Gets the float array value of this color. values range from 0 to 1. The array is shared between callers, so it
+     * must not be modified.
      *
      * @return float array of color values
      */
     public float[] getAsFloatArray() {
-        return new float[]{getRed(), getGreen(), getBlue(), 1};
+        if (floatArray == null)
+            floatArray = new float[]{getRed(), getGreen(), getBlue(), 1};
+        return floatArray;
     }
 
     /**
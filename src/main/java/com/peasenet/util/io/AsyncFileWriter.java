@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.io;
+
+import com.peasenet.main.GavinsMod;
+import com.peasenet.util.jfr.JfrEvents;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author gt3ch1
+ * @version 7/9/2022
+ * Writes a file on a background thread. Writes that are requested within the debounce window of each other are
+ * coalesced, so only the newest content is written. The content is written to a temporary file first, which is then
+ * moved over the target file, so a crash in the middle of a write never leaves a half written file behind.
+ */
+public class AsyncFileWriter {
+
+    /**
+     * The thread that all file writes happen on.
+     */
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        var thread = new Thread(r, "GavinsMod-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The file to write to.
+     */
+    private final Path path;
+
+    /**
+     * How long to wait for more changes before writing, in milliseconds.
+     */
+    private final long debounceMillis;
+
+    /**
+     * The newest content that has not been written yet, or null if there is nothing to write.
+     */
+    private Content pending;
+
+    /**
+     * The currently scheduled write, if any.
+     */
+    private ScheduledFuture<?> scheduled;
+
+    /**
+     * Creates a new asynchronous file writer.
+     *
+     * @param path           - The file to write to.
+     * @param debounceMillis - How long to wait for more changes before writing, in milliseconds.
+     */
+    public AsyncFileWriter(Path path, long debounceMillis) {
+        this.path = path;
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Schedules the given content to be written. Any content that was scheduled before and has not been written yet
+     * is replaced. The content must not depend on state that can change on other threads, so callers should snapshot
+     * whatever they want to write before calling this.
+     *
+     * @param content - The content to write.
+     */
+    public synchronized void schedule(Content content) {
+        pending = content;
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = EXECUTOR.schedule(this::writePending, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes any pending content right away, and waits for the write to finish.
+     */
+    public void flush() {
+        synchronized (this) {
+            if (scheduled != null) scheduled.cancel(false);
+            scheduled = null;
+        }
+        try {
+            EXECUTOR.submit(this::writePending).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            GavinsMod.LOGGER.error("Error flushing " + path.getFileName() + ".");
+            GavinsMod.LOGGER.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the pending content, if there is any. Only runs on the IO thread.
+     */
+    private void writePending() {
+        Content content;
+        synchronized (this) {
+            content = pending;
+            pending = null;
+        }
+        if (content == null) return;
+        try {
+            writeAtomically(path, content);
+        } catch (Exception e) {
+            GavinsMod.LOGGER.error("Error writing " + path.getFileName() + ".");
+            GavinsMod.LOGGER.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given content to a temporary file, and then moves it over the given file. This blocks, so it should
+     * only be called from the IO thread.
+     *
+     * @param path    - The file to write to.
+     * @param content - The content to write.
+     * @throws IOException If the file could not be written.
+     */
+    public static void writeAtomically(Path path, Content content) throws IOException {
+        var tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        var event = JfrEvents.beginFileIo(path.getFileName().toString(), "write");
+        try (var writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            content.writeTo(writer);
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (event != null) event.bytes = Files.size(path);
+        JfrEvents.commit(event);
+    }
+
+    /**
+     * Runs the given task on the IO thread, after every task and write that is already due. Tasks run one at a time,
+     * in the order they were submitted, so this can be used for files that are appended to.
+     *
+     * @param task - The task to run.
+     * @return A future that completes once the task has run.
+     */
+    public static Future<?> execute(Runnable task) {
+        return EXECUTOR.submit(task);
+    }
+
+    /**
+     * The content of a file to write.
+     */
+    @FunctionalInterface
+    public interface Content {
+        /**
+         * Writes the content to the given writer.
+         *
+         * @param writer - The writer to write to.
+         * @throws IOException If the content could not be written.
+         */
+        void writeTo(Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.util.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * A flight recorder event spanning one pass of the esp and tracer renderer, with how much it drew.
+ */
+@Name("com.peasenet.EspPass")
+@Label("ESP Pass")
+@Category("GavinsMod")
+@Description("One frame of esp and tracer rendering.")
+public class EspPassEvent extends Event {
+
+    /**
+     * The number of entities visited.
+     */
+    @Label("Entities")
+    public int entities;
+
+    /**
+     * The number of container tracers emitted.
+     */
+    @Label("Containers")
+    public int containers;
+
+    /**
+     * The number of waypoint tracers emitted.
+     */
+    @Label("Waypoints")
+    public int waypoints;
+}
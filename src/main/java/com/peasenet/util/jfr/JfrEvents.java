@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.util.jfr;
+
+import com.peasenet.main.Settings;
+import com.peasenet.mods.Type;
+import jdk.jfr.Event;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Creates the flight recorder events of the mod. Events are only created when the "misc.jfr" setting is on, so while
+ * it is off, every call site costs a single volatile read and nothing is allocated. Usage:
+ * <pre>
+ *     var event = JfrEvents.beginModHook(Type.XRAY, "tick");
+ *     doWork();
+ *     JfrEvents.commit(event);
+ * </pre>
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    /**
+     * Gets whether the mod emits flight recorder events.
+     *
+     * @return Whether events are emitted.
+     */
+    public static boolean isEnabled() {
+        return Settings.MISC_JFR.get();
+    }
+
+    /**
+     * Begins a mod hook event.
+     *
+     * @param type - The type of the mod.
+     * @param hook - The hook that is running, ie, "tick".
+     * @return The event, or null if events are disabled.
+     */
+    public static ModHookEvent beginModHook(Type type, String hook) {
+        if (!isEnabled()) return null;
+        var event = new ModHookEvent();
+        if (!event.isEnabled()) return null;
+        event.mod = type.name();
+        event.hook = hook;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Begins a file io event.
+     *
+     * @param file      - The name of the file.
+     * @param operation - Whether the file is read or written.
+     * @return The event, or null if events are disabled.
+     */
+    public static FileIoEvent beginFileIo(String file, String operation) {
+        if (!isEnabled()) return null;
+        var event = new FileIoEvent();
+        if (!event.isEnabled()) return null;
+        event.file = file;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Begins an esp pass event.
+     *
+     * @return The event, or null if events are disabled.
+     */
+    public static EspPassEvent beginEspPass() {
+        if (!isEnabled()) return null;
+        var event = new EspPassEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records an xray reload event.
+     *
+     * @param trigger  - What triggered the reload.
+     * @param sections - The number of sections queued for a rebuild.
+     */
+    public static void xrayReload(String trigger, int sections) {
+        if (!isEnabled()) return;
+        var event = new XrayReloadEvent();
+        if (!event.isEnabled()) return;
+        event.trigger = trigger;
+        event.sections = sections;
+        event.commit();
+    }
+
+    /**
+     * Commits the given event, if there is one.
+     *
+     * @param event - The event returned by one of the begin methods, or null.
+     */
+    public static void commit(Event event) {
+        if (event != null) event.commit();
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.util.profiler;
+
+import com.peasenet.main.GavinsMod;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Frame pacing, garbage collection and allocation statistics. The time of every frame is recorded into a ring buffer,
+ * and the statistics are recomputed from it (and from the management beans) twice a second. All methods must be
+ * called on the render thread.
+ */
+public final class FrameStats {
+
+    /**
+     * The number of frame times kept.
+     */
+    public static final int FRAMES = 1000;
+
+    /**
+     * How often the statistics are recomputed, in nanoseconds.
+     */
+    private static final long UPDATE_INTERVAL = 500_000_000L;
+
+    /**
+     * The most recent frame times, in nanoseconds.
+     */
+    private static final long[] frameTimes = new long[FRAMES];
+
+    /**
+     * A scratch array used to sort the frame times.
+     */
+    private static final long[] sorted = new long[FRAMES];
+
+    /**
+     * The garbage collectors of the jvm.
+     */
+    private static final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /**
+     * The thread bean, if it can measure the bytes allocated by a thread.
+     */
+    private static final com.sun.management.ThreadMXBean threadBean = getAllocationBean();
+
+    /**
+     * The number of frames recorded.
+     */
+    private static long frameCount = 0;
+
+    /**
+     * The start time of the last frame.
+     */
+    private static long lastFrame = 0;
+
+    /**
+     * The time of the last update of the statistics.
+     */
+    private static long lastUpdate = 0;
+
+    /**
+     * The total number of collections and collection time at the last update.
+     */
+    private static long lastGcCount = -1, lastGcMillis = 0;
+
+    /**
+     * The bytes allocated by the render thread at the last update.
+     */
+    private static long lastAllocated = -1;
+
+    /**
+     * The average frame time, and the average of the slowest 1% and 0.1% of frames, in nanoseconds.
+     */
+    private static long average, low1, low01;
+
+    /**
+     * The collections and time spent collecting (in milliseconds) during the last update interval.
+     */
+    private static long gcCount, gcMillis;
+
+    /**
+     * The used and maximum heap, in bytes.
+     */
+    private static long heapUsed, heapMax;
+
+    /**
+     * The bytes allocated per second by the render thread, or -1 if it can not be measured.
+     */
+    private static long allocationRate = -1;
+
+    /**
+     * The number of times the statistics were recomputed, so readers can cache what they derive from them.
+     */
+    private static int updates = 0;
+
+    private FrameStats() {
+    }
+
+    /**
+     * Gets the thread bean if it supports measuring the bytes allocated by a thread, enabling the measurement.
+     *
+     * @return The thread bean, or null if it is not supported.
+     */
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+                return sunBean;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            GavinsMod.LOGGER.warn("Allocation rate is not available: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Records the start of a frame. Called at the start of every frame by the minecraft client mixin.
+     */
+    public static void onFrame() {
+        var now = System.nanoTime();
+        if (lastFrame != 0)
+            frameTimes[(int) (frameCount++ % FRAMES)] = now - lastFrame;
+        lastFrame = now;
+        if (now - lastUpdate >= UPDATE_INTERVAL) {
+            update(now);
+            lastUpdate = now;
+        }
+    }
+
+    /**
+     * Recomputes the statistics.
+     *
+     * @param now - The current time.
+     */
+    private static void update(long now) {
+        var size = (int) Math.min(frameCount, FRAMES);
+        if (size > 0) {
+            System.arraycopy(frameTimes, 0, sorted, 0, size);
+            Arrays.sort(sorted, 0, size);
+            average = averageOfSlowest(size, size);
+            low1 = averageOfSlowest(size, Math.max(1, size / 100));
+            low01 = averageOfSlowest(size, Math.max(1, size / 1000));
+        }
+
+        long count = 0, millis = 0;
+        for (var collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        if (lastGcCount >= 0) {
+            gcCount = count - lastGcCount;
+            gcMillis = millis - lastGcMillis;
+        }
+        lastGcCount = count;
+        lastGcMillis = millis;
+
+        var runtime = Runtime.getRuntime();
+        heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        heapMax = runtime.maxMemory();
+
+        if (threadBean != null) {
+            var allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            if (lastAllocated >= 0 && lastUpdate != 0)
+                allocationRate = (allocated - lastAllocated) * 1_000_000_000L / (now - lastUpdate);
+            lastAllocated = allocated;
+        }
+        updates++;
+    }
+
+    /**
+     * Gets the average of the slowest sorted frame times.
+     *
+     * @param size  - The number of sorted frame times.
+     * @param count - The number of slowest frame times to average.
+     * @return The average, in nanoseconds.
+     */
+    private static long averageOfSlowest(int size, int count) {
+        long sum = 0;
+        for (int i = size - count; i < size; i++)
+            sum += sorted[i];
+        return sum / count;
+    }
+
+    /**
+     * Copies the most recent frame times, oldest first, into the given array.
+     *
+     * @param out - The array to copy into.
+     * @return The number of frame times copied.
+     */
+    public static int getRecentFrameTimes(long[] out) {
+        var count = (int) Math.min(Math.min(frameCount, FRAMES), out.length);
+        for (int i = 0; i < count; i++)
+            out[i] = frameTimes[(int) ((frameCount - count + i) % FRAMES)];
+        return count;
+    }
+
+    /**
+     * Gets the number of times the statistics were recomputed.
+     *
+     * @return The number of updates.
+     */
+    public static int getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Gets the average frame time.
+     *
+     * @return The average frame time, in nanoseconds.
+     */
+    public static long getAverage() {
+        return average;
+    }
+
+    /**
+     * Gets the average of the slowest 1% of frames.
+     *
+     * @return The 1% low frame time, in nanoseconds.
+     */
+    public static long getLow1() {
+        return low1;
+    }
+
+    /**
+     * Gets the average of the slowest 0.1% of frames.
+     *
+     * @return The 0.1% low frame time, in nanoseconds.
+     */
+    public static long getLow01() {
+        return low01;
+    }
+
+    /**
+     * Gets the number of garbage collections during the last update interval.
+     *
+     * @return The number of collections.
+     */
+    public static long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * Gets the time spent collecting garbage during the last update interval.
+     *
+     * @return The time spent collecting, in milliseconds.
+     */
+    public static long getGcMillis() {
+        return gcMillis;
+    }
+
+    /**
+     * Gets the used heap.
+     *
+     * @return The used heap, in bytes.
+     */
+    public static long getHeapUsed() {
+        return heapUsed;
+    }
+
+    /**
+     * Gets the maximum heap.
+     *
+     * @return The maximum heap, in bytes.
+     */
+    public static long getHeapMax() {
+        return heapMax;
+    }
+
+    /**
+     * Gets the bytes allocated per second by the render thread.
+     *
+     * @return The allocation rate, in bytes per second, or -1 if it can not be measured.
+     */
+    public static long getAllocationRate() {
+        return allocationRate;
+    }
+}
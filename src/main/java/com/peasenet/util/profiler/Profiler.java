@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.util.profiler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * A lightweight profiler for the hooks of the mods and the phases of the world renderer. While it is disabled,
+ * timing a section costs a single volatile read. Usage:
+ * <pre>
+ *     var start = Profiler.start();
+ *     doWork();
+ *     Profiler.end(section, start);
+ * </pre>
+ */
+public final class Profiler {
+
+    /**
+     * The sections of the profiler, by name, in the order they were created.
+     */
+    private static final LinkedHashMap<String, ProfilerSection> sections = new LinkedHashMap<>();
+
+    /**
+     * Whether the profiler is recording.
+     */
+    private static volatile boolean enabled = false;
+
+    private Profiler() {
+    }
+
+    /**
+     * Gets the section with the given name, creating it if it does not exist. Callers should keep the section
+     * instead of looking it up on every sample.
+     *
+     * @param name - The name of the section (ie, "tick.fly").
+     * @return The section.
+     */
+    public static synchronized ProfilerSection section(String name) {
+        return sections.computeIfAbsent(name, ProfilerSection::new);
+    }
+
+    /**
+     * Gets whether the profiler is recording.
+     *
+     * @return Whether the profiler is recording.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether the profiler is recording.
+     *
+     * @param enabled - Whether the profiler should record.
+     */
+    public static void setEnabled(boolean enabled) {
+        Profiler.enabled = enabled;
+    }
+
+    /**
+     * Starts timing a section.
+     *
+     * @return The start time, or 0 if the profiler is not recording.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stops timing a section and records the sample.
+     *
+     * @param section - The section that was timed.
+     * @param start   - The value returned by #start.
+     */
+    public static void end(ProfilerSection section, long start) {
+        if (start != 0L)
+            section.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Summarizes all sections with samples, slowest (by p95) first.
+     *
+     * @return The summaries of the sections.
+     */
+    public static synchronized List<ProfilerSection.Summary> summarize() {
+        var summaries = new ArrayList<ProfilerSection.Summary>();
+        for (var section : sections.values()) {
+            var summary = section.summarize();
+            if (summary != null) summaries.add(summary);
+        }
+        summaries.sort((a, b) -> Long.compare(b.p95(), a.p95()));
+        return summaries;
+    }
+
+    /**
+     * Forgets the samples of all sections.
+     */
+    public static synchronized void reset() {
+        for (var section : sections.values())
+            section.reset();
+    }
+}
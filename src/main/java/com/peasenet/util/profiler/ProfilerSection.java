@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.util.profiler;
+
+import java.util.Arrays;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * The timings of a single profiled section (ie, the tick of a mod). The most recent samples are kept in a fixed size
+ * ring buffer, so recording a sample never allocates. Sections are only recorded and read on the client thread.
+ */
+public final class ProfilerSection {
+
+    /**
+     * The number of samples kept for each section.
+     */
+    public static final int SAMPLES = 256;
+
+    /**
+     * The name of this section.
+     */
+    private final String name;
+
+    /**
+     * The most recent samples, in nanoseconds.
+     */
+    private final long[] samples = new long[SAMPLES];
+
+    /**
+     * A scratch array used to sort the samples when computing percentiles.
+     */
+    private final long[] sorted = new long[SAMPLES];
+
+    /**
+     * The total number of samples recorded since the last reset.
+     */
+    private long count = 0;
+
+    /**
+     * Creates a new profiler section.
+     *
+     * @param name - The name of the section.
+     */
+    ProfilerSection(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of this section.
+     *
+     * @return The name of this section.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a sample.
+     *
+     * @param nanos - The duration of the sample, in nanoseconds.
+     */
+    public void record(long nanos) {
+        samples[(int) (count++ % SAMPLES)] = nanos;
+    }
+
+    /**
+     * Gets whether any sample has been recorded since the last reset.
+     *
+     * @return Whether this section has samples.
+     */
+    public boolean hasSamples() {
+        return count > 0;
+    }
+
+    /**
+     * Forgets all recorded samples.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Computes the p50, p95 and max of the recorded samples.
+     *
+     * @return The summary of this section, or null if there are no samples.
+     */
+    public Summary summarize() {
+        var size = (int) Math.min(count, SAMPLES);
+        if (size == 0) return null;
+        System.arraycopy(samples, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        return new Summary(name, percentile(size, 0.50), percentile(size, 0.95), sorted[size - 1], size);
+    }
+
+    /**
+     * Gets the given percentile of the sorted samples.
+     *
+     * @param size       - The number of sorted samples.
+     * @param percentile - The percentile, from 0 to 1.
+     * @return The sample at the given percentile.
+     */
+    private long percentile(int size, double percentile) {
+        var index = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * A summary of the samples of a section.
+     *
+     * @param name    - The name of the section.
+     * @param p50     - The median sample, in nanoseconds.
+     * @param p95     - The 95th percentile sample, in nanoseconds.
+     * @param max     - The largest sample, in nanoseconds.
+     * @param samples - The number of samples summarized.
+     */
+    public record Summary(String name, long p50, long p95, long max, int samples) {
+        /**
+         * Formats this summary as a single line, with the times in milliseconds.
+         *
+         * @return The formatted summary.
+         */
+        public String format() {
+            return String.format("%s: p50 %.3fms p95 %.3fms max %.3fms", name, p50 / 1e6, p95 / 1e6, max / 1e6);
+        }
+    }
+}
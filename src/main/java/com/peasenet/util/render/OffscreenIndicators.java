@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.peasenet.util.color.Color;
+import net.minecraft.client.render.Camera;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+
+import java.util.Arrays;
+
+/**
+ * @author gt3ch1
+ * @version 7/10/2022
+ * Collects tracer targets that are outside of the camera frustum and draws them as small markers along the edge of
+ * the screen, in the direction of the target. All markers are drawn in a single batch.
+ */
+public final class OffscreenIndicators {
+
+    /**
+     * The size of a marker, in scaled pixels.
+     */
+    private static final float SIZE = 3f;
+
+    /**
+     * The distance between the markers and the edge of the screen, in scaled pixels.
+     */
+    private static final float INSET = 6f;
+
+    /**
+     * The screen space direction of each marker, as the x and y components of a unit vector.
+     */
+    private static float[] directions = new float[64];
+
+    /**
+     * The color of each marker.
+     */
+    private static Color[] colors = new Color[32];
+
+    /**
+     * The number of markers collected this frame.
+     */
+    private static int count = 0;
+
+    private OffscreenIndicators() {
+    }
+
+    /**
+     * Removes all markers. Called at the start of each frame.
+     */
+    public static void clear() {
+        count = 0;
+    }
+
+    /**
+     * Adds a marker for a target at the given world position.
+     *
+     * @param camera - The camera of the frame.
+     * @param x      - The x coordinate of the target.
+     * @param y      - The y coordinate of the target.
+     * @param z      - The z coordinate of the target.
+     * @param color  - The color of the marker.
+     */
+    public static void add(Camera camera, double x, double y, double z, Color color) {
+        var pos = camera.getPos();
+        var dx = (float) (x - pos.x);
+        var dy = (float) (y - pos.y);
+        var dz = (float) (z - pos.z);
+        var up = camera.getVerticalPlane();
+        var left = camera.getDiagonalPlane();
+        // screen x grows to the right and screen y grows downwards.
+        var screenX = -(dx * left.getX() + dy * left.getY() + dz * left.getZ());
+        var screenY = -(dx * up.getX() + dy * up.getY() + dz * up.getZ());
+        var length = (float) Math.sqrt(screenX * screenX + screenY * screenY);
+        if (length < 1e-4f) return;
+        if (count == colors.length) {
+            colors = Arrays.copyOf(colors, count * 2);
+            directions = Arrays.copyOf(directions, count * 4);
+        }
+        directions[count * 2] = screenX / length;
+        directions[count * 2 + 1] = screenY / length;
+        colors[count] = color;
+        count++;
+    }
+
+    /**
+     * Draws all markers collected this frame.
+     *
+     * @param matrixStack - The matrix stack of the hud.
+     * @param width       - The scaled width of the screen.
+     * @param height      - The scaled height of the screen.
+     */
+    public static void render(MatrixStack matrixStack, int width, int height) {
+        if (count == 0) return;
+        var halfWidth = width / 2f - INSET;
+        var halfHeight = height / 2f - INSET;
+        var matrix = matrixStack.peek().getPositionMatrix();
+        var buffer = Tessellator.getInstance().getBuffer();
+        RenderSystem.enableBlend();
+        RenderSystem.disableTexture();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.setShader(GameRenderer::getPositionColorShader);
+        RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
+        buffer.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR);
+        for (int i = 0; i < count; i++) {
+            var dirX = directions[i * 2];
+            var dirY = directions[i * 2 + 1];
+            // scale the direction so it touches the inset edge of the screen.
+            var scale = Math.min(dirX == 0 ? Float.MAX_VALUE : halfWidth / Math.abs(dirX),
+                    dirY == 0 ? Float.MAX_VALUE : halfHeight / Math.abs(dirY));
+            var x = width / 2f + dirX * scale;
+            var y = height / 2f + dirY * scale;
+            var c = colors[i];
+            buffer.vertex(matrix, x - SIZE, y + SIZE, 0).color(c.getRed(), c.getGreen(), c.getBlue(), 0.8f).next();
+            buffer.vertex(matrix, x + SIZE, y + SIZE, 0).color(c.getRed(), c.getGreen(), c.getBlue(), 0.8f).next();
+            buffer.vertex(matrix, x + SIZE, y - SIZE, 0).color(c.getRed(), c.getGreen(), c.getBlue(), 0.8f).next();
+            buffer.vertex(matrix, x - SIZE, y - SIZE, 0).color(c.getRed(), c.getGreen(), c.getBlue(), 0.8f).next();
+        }
+        Tessellator.getInstance().draw();
+        RenderSystem.enableTexture();
+        RenderSystem.disableBlend();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.peasenet.main.Settings;
+import com.peasenet.util.color.Color;
+import com.peasenet.util.world.ContainerIndex;
+import com.peasenet.util.world.WaypointStore;
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * @author gt3ch1
+ * @version 7/10/2022
+ * Keeps the boxes of things that do not move (chests and waypoints) in a vertex buffer on the GPU. The buffer is only
+ * rebuilt when the containers, waypoints, colors or render distance change, or when the player leaves the region it
+ * was built for, and otherwise drawn with a single call each frame.
+ */
+public final class StaticEspBuffer {
+
+    /**
+     * The builder used to fill the vertex buffer. Kept around so its memory is reused between rebuilds.
+     */
+    private static final BufferBuilder builder = new BufferBuilder(4096);
+
+    /**
+     * How many chunks the player can move away from the center of the buffer before it is rebuilt. The buffer covers
+     * this many chunks more than the render radius, so nothing in range is missing until then.
+     */
+    private static final int REGION_MARGIN = 4;
+
+    /**
+     * The vertex buffer on the GPU, created on first use.
+     */
+    private static VertexBuffer vertexBuffer;
+
+    /**
+     * Whether the vertex buffer contains no vertices.
+     */
+    private static boolean empty = true;
+
+    /**
+     * The position the vertices are relative to, to keep float precision far away from the world origin.
+     */
+    private static BlockPos origin = BlockPos.ORIGIN;
+
+    /**
+     * The waypoint snapshot the buffer was built from.
+     */
+    private static WaypointStore.Snapshot waypointSnapshot = null;
+
+    /**
+     * The version of the container index the buffer was built from.
+     */
+    private static int builtContainerVersion = -1;
+
+    /**
+     * The chest ESP color the buffer was built with.
+     */
+    private static Color builtChestColor = null;
+
+    /**
+     * Whether the buffer contains chests.
+     */
+    private static boolean builtChests = false;
+
+    /**
+     * Whether the buffer contains waypoints.
+     */
+    private static boolean builtWaypoints = false;
+
+    /**
+     * The chunk x coordinate of the center of the region the buffer was built for.
+     */
+    private static int builtChunkX = 0;
+
+    /**
+     * The chunk z coordinate of the center of the region the buffer was built for.
+     */
+    private static int builtChunkZ = 0;
+
+    /**
+     * The chunk radius the buffer was built with.
+     */
+    private static int builtRadius = -1;
+
+    private StaticEspBuffer() {
+    }
+
+    /**
+     * Rebuilds the buffer if anything it was built from has changed.
+     *
+     * @param chests    - Whether chest ESP is enabled.
+     * @param waypoints - Whether waypoints are enabled.
+     * @param chunkX    - The chunk x coordinate of the player.
+     * @param chunkZ    - The chunk z coordinate of the player.
+     * @param radius    - How many chunks away from the player chests and waypoints are drawn.
+     */
+    public static void update(boolean chests, boolean waypoints, int chunkX, int chunkZ, int radius) {
+        var snapshot = WaypointStore.getSnapshot();
+        var chestColor = Settings.ESP_CHEST_COLOR.get();
+        var upToDate = chests == builtChests && waypoints == builtWaypoints
+                && (!waypoints || snapshot == waypointSnapshot)
+                && (!chests || (ContainerIndex.getVersion() == builtContainerVersion && chestColor == builtChestColor))
+                && (!chests && !waypoints || (Math.abs(chunkX - builtChunkX) <= REGION_MARGIN
+                && Math.abs(chunkZ - builtChunkZ) <= REGION_MARGIN && radius == builtRadius));
+        if (upToDate) return;
+        builtChests = chests;
+        builtWaypoints = waypoints;
+        waypointSnapshot = snapshot;
+        builtContainerVersion = ContainerIndex.getVersion();
+        builtChestColor = chestColor;
+        builtChunkX = chunkX;
+        builtChunkZ = chunkZ;
+        builtRadius = radius;
+        rebuild();
+    }
+
+    /**
+     * Fills the vertex buffer with the boxes of all chests and waypoints.
+     */
+    private static void rebuild() {
+        origin = new BlockPos(builtChunkX << 4, 0, builtChunkZ << 4);
+        var range = builtRadius + REGION_MARGIN;
+        var matrices = new MatrixStack();
+        builder.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION_COLOR);
+        var count = new int[1];
+        if (builtChests) {
+            ContainerIndex.forEach((x, y, z, type) -> {
+                if (Math.abs((x >> 4) - builtChunkX) > range || Math.abs((z >> 4) - builtChunkZ) > range)
+                    return;
+                drawBox(matrices, x, y, z, builtChestColor);
+                count[0]++;
+            });
+        }
+        if (builtWaypoints) {
+            var centerX = (builtChunkX << 4) + 8;
+            var centerZ = (builtChunkZ << 4) + 8;
+            waypointSnapshot.forEachNear(centerX, centerZ, (range + 1) << 4, w -> {
+                if (!w.isEspEnabled()) return;
+                drawBox(matrices, w.getX(), w.getY(), w.getZ(), w.getColor());
+                count[0]++;
+            });
+        }
+        var built = builder.end();
+        empty = count[0] == 0;
+        if (vertexBuffer == null) vertexBuffer = new VertexBuffer();
+        vertexBuffer.bind();
+        vertexBuffer.upload(built);
+        VertexBuffer.unbind();
+    }
+
+    /**
+     * Adds the outline of a single block to the builder, relative to the origin.
+     *
+     * @param matrices - An identity matrix stack.
+     * @param x        - The x coordinate of the block.
+     * @param y        - The y coordinate of the block.
+     * @param z        - The z coordinate of the block.
+     * @param c        - The color of the box.
+     */
+    private static void drawBox(MatrixStack matrices, int x, int y, int z, Color c) {
+        var box = new Box(x - origin.getX(), y - origin.getY(), z - origin.getZ(),
+                x - origin.getX() + 1, y - origin.getY() + 1, z - origin.getZ() + 1);
+        WorldRenderer.drawBox(matrices, builder, box, c.getRed(), c.getGreen(), c.getBlue(), 1f);
+    }
+
+    /**
+     * Draws the buffer.
+     *
+     * @param stack  - The matrix stack of the world render context, not translated by the camera.
+     * @param camera - The position of the camera.
+     */
+    public static void draw(MatrixStack stack, Vec3d camera) {
+        if (empty || vertexBuffer == null) return;
+        stack.push();
+        stack.translate(origin.getX() - camera.x, origin.getY() - camera.y, origin.getZ() - camera.z);
+        var modelView = RenderSystem.getModelViewMatrix().copy();
+        modelView.multiply(stack.peek().getPositionMatrix());
+        vertexBuffer.bind();
+        vertexBuffer.draw(modelView, RenderSystem.getProjectionMatrix(), GameRenderer.getPositionColorShader());
+        VertexBuffer.unbind();
+        stack.pop();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.util.render;
+
+import com.peasenet.util.color.Color;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.util.math.MatrixStack;
+
+import java.nio.FloatBuffer;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Emits esp boxes and tracer lines into a buffer with the debug lines draw mode and the position color format, straight
+ * from primitive coordinates. The position matrix is read once in #begin, and every vertex is transformed with it by
+ * hand, so emitting a box or a line allocates nothing (unlike VertexConsumer#vertex(Matrix4f, ...), which allocates a
+ * vector per vertex).
+ */
+public final class VertexEmitter {
+
+    /**
+     * A scratch buffer used to read the position matrix.
+     */
+    private final FloatBuffer matrix = FloatBuffer.allocate(16);
+
+    /**
+     * The first three rows of the position matrix.
+     */
+    private double m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23;
+
+    /**
+     * Starts emitting with the current position matrix of the given stack. Must be called again whenever the stack
+     * changes.
+     *
+     * @param stack - The matrix stack.
+     * @return This emitter.
+     */
+    public VertexEmitter begin(MatrixStack stack) {
+        matrix.clear();
+        stack.peek().getPositionMatrix().writeColumnMajor(matrix);
+        // column major, so the element at (row, column) is at column * 4 + row.
+        m00 = matrix.get(0);
+        m10 = matrix.get(1);
+        m20 = matrix.get(2);
+        m01 = matrix.get(4);
+        m11 = matrix.get(5);
+        m21 = matrix.get(6);
+        m02 = matrix.get(8);
+        m12 = matrix.get(9);
+        m22 = matrix.get(10);
+        m03 = matrix.get(12);
+        m13 = matrix.get(13);
+        m23 = matrix.get(14);
+        return this;
+    }
+
+    /**
+     * Packs the given color and alpha into an argb int.
+     *
+     * @param color - The color.
+     * @param alpha - The alpha, from 0 to 1.
+     * @return The packed color.
+     */
+    public static int pack(Color color, float alpha) {
+        return ((int) (alpha * 255) << 24) | color.getAsInt();
+    }
+
+    /**
+     * Emits a single line.
+     *
+     * @param buffer - The buffer to emit into.
+     * @param x0     - The x coordinate of the start of the line.
+     * @param y0     - The y coordinate of the start of the line.
+     * @param z0     - The z coordinate of the start of the line.
+     * @param x1     - The x coordinate of the end of the line.
+     * @param y1     - The y coordinate of the end of the line.
+     * @param z1     - The z coordinate of the end of the line.
+     * @param argb   - The packed color of the line.
+     */
+    public void emitLine(VertexConsumer buffer, double x0, double y0, double z0, double x1, double y1, double z1, int argb) {
+        vertex(buffer, x0, y0, z0, argb);
+        vertex(buffer, x1, y1, z1, argb);
+    }
+
+    /**
+     * Emits the twelve edges of a box.
+     *
+     * @param buffer - The buffer to emit into.
+     * @param minX   - The minimum x coordinate of the box.
+     * @param minY   - The minimum y coordinate of the box.
+     * @param minZ   - The minimum z coordinate of the box.
+     * @param maxX   - The maximum x coordinate of the box.
+     * @param maxY   - The maximum y coordinate of the box.
+     * @param maxZ   - The maximum z coordinate of the box.
+     * @param argb   - The packed color of the box.
+     */
+    public void emitBox(VertexConsumer buffer, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, int argb) {
+        // the bottom face.
+        emitLine(buffer, minX, minY, minZ, maxX, minY, minZ, argb);
+        emitLine(buffer, maxX, minY, minZ, maxX, minY, maxZ, argb);
+        emitLine(buffer, maxX, minY, maxZ, minX, minY, maxZ, argb);
+        emitLine(buffer, minX, minY, maxZ, minX, minY, minZ, argb);
+        // the top face.
+        emitLine(buffer, minX, maxY, minZ, maxX, maxY, minZ, argb);
+        emitLine(buffer, maxX, maxY, minZ, maxX, maxY, maxZ, argb);
+        emitLine(buffer, maxX, maxY, maxZ, minX, maxY, maxZ, argb);
+        emitLine(buffer, minX, maxY, maxZ, minX, maxY, minZ, argb);
+        // the vertical edges.
+        emitLine(buffer, minX, minY, minZ, minX, maxY, minZ, argb);
+        emitLine(buffer, maxX, minY, minZ, maxX, maxY, minZ, argb);
+        emitLine(buffer, maxX, minY, maxZ, maxX, maxY, maxZ, argb);
+        emitLine(buffer, minX, minY, maxZ, minX, maxY, maxZ, argb);
+    }
+
+    /**
+     * Emits a single transformed vertex.
+     *
+     * @param buffer - The buffer to emit into.
+     * @param x      - The x coordinate of the vertex.
+     * @param y      - The y coordinate of the vertex.
+     * @param z      - The z coordinate of the vertex.
+     * @param argb   - The packed color of the vertex.
+     */
+    private void vertex(VertexConsumer buffer, double x, double y, double z, int argb) {
+        buffer.vertex(m00 * x + m01 * y + m02 * z + m03, m10 * x + m11 * y + m12 * z + m13, m20 * x + m21 * y + m22 * z + m23)
+                .color(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF, argb >>> 24).next();
+    }
+}
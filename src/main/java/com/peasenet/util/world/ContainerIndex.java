@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.ChestBlockEntity;
+import net.minecraft.block.entity.EnderChestBlockEntity;
+import net.minecraft.block.entity.ShulkerBoxBlockEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * @author gt3ch1
+ * @version 7/10/2022
+ * An index of the containers (chests, ender chests and shulker boxes) in the loaded chunks of the client world.
+ * It is kept up to date by the chunk and block entity mixins, so the renderer never has to sweep the loaded chunks.
+ * All methods must be called from the client thread.
+ */
+public final class ContainerIndex {
+
+    /**
+     * The type of regular and trapped chests.
+     */
+    public static final byte CHEST = 0;
+
+    /**
+     * The type of ender chests.
+     */
+    public static final byte ENDER_CHEST = 1;
+
+    /**
+     * The type of shulker boxes.
+     */
+    public static final byte SHULKER_BOX = 2;
+
+    /**
+     * The containers of each loaded chunk, keyed by the packed chunk position. Each chunk maps packed block
+     * positions to container types.
+     */
+    private static final Long2ObjectOpenHashMap<Long2ByteOpenHashMap> chunks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * The packed positions of all containers, rebuilt lazily from the chunks when they change.
+     */
+    private static long[] positions = new long[0];
+
+    /**
+     * The types of all containers, in the same order as positions.
+     */
+    private static byte[] types = new byte[0];
+
+    /**
+     * The number of containers in positions and types.
+     */
+    private static int size = 0;
+
+    /**
+     * Whether positions and types have to be rebuilt.
+     */
+    private static boolean dirty = false;
+
+    /**
+     * Incremented each time a container is added or removed.
+     */
+    private static int version = 0;
+
+    private ContainerIndex() {
+    }
+
+    /**
+     * A callback for each container in the index.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Visits a single container.
+         *
+         * @param x    - The x coordinate of the container.
+         * @param y    - The y coordinate of the container.
+         * @param z    - The z coordinate of the container.
+         * @param type - The type of the container.
+         */
+        void visit(int x, int y, int z, byte type);
+    }
+
+    /**
+     * Gets the container type of the given block entity.
+     *
+     * @param blockEntity - The block entity.
+     * @return The container type, or -1 if the block entity is not a container.
+     */
+    public static byte typeOf(BlockEntity blockEntity) {
+        if (blockEntity instanceof ChestBlockEntity) return CHEST;
+        if (blockEntity instanceof EnderChestBlockEntity) return ENDER_CHEST;
+        if (blockEntity instanceof ShulkerBoxBlockEntity) return SHULKER_BOX;
+        return -1;
+    }
+
+    /**
+     * Adds the given block entity to the index, if it is a container.
+     *
+     * @param blockEntity - The block entity that was added.
+     */
+    public static void add(BlockEntity blockEntity) {
+        var type = typeOf(blockEntity);
+        if (type < 0) return;
+        var pos = blockEntity.getPos();
+        var chunkKey = ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+        var chunk = chunks.computeIfAbsent(chunkKey, k -> new Long2ByteOpenHashMap());
+        var packed = pos.asLong();
+        if (chunk.containsKey(packed) && chunk.get(packed) == type) return;
+        chunk.put(packed, type);
+        changed();
+    }
+
+    /**
+     * Removes the container at the given position from the index, if there is one.
+     *
+     * @param pos - The position of the removed block entity.
+     */
+    public static void remove(BlockPos pos) {
+        var chunk = chunks.get(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (chunk == null || !chunk.containsKey(pos.asLong())) return;
+        chunk.remove(pos.asLong());
+        changed();
+    }
+
+    /**
+     * Replaces the containers of the given chunk with the block entities it currently has.
+     *
+     * @param chunk - The chunk that was loaded.
+     */
+    public static void onChunkLoad(WorldChunk chunk) {
+        var chunkPos = chunk.getPos();
+        var containers = new Long2ByteOpenHashMap();
+        chunk.getBlockEntities().forEach((pos, blockEntity) -> {
+            var type = typeOf(blockEntity);
+            if (type >= 0) containers.put(pos.asLong(), type);
+        });
+        var previous = containers.isEmpty() ? chunks.remove(chunkPos.toLong()) : chunks.put(chunkPos.toLong(), containers);
+        // chunks are loaded all the time, but most of them have no containers or the same ones as before.
+        if (previous == null ? !containers.isEmpty() : !previous.equals(containers)) changed();
+    }
+
+    /**
+     * Removes all containers of the given chunk from the index.
+     *
+     * @param chunkX - The x coordinate of the chunk.
+     * @param chunkZ - The z coordinate of the chunk.
+     */
+    public static void onChunkUnload(int chunkX, int chunkZ) {
+        if (chunks.remove(ChunkPos.toLong(chunkX, chunkZ)) != null) changed();
+    }
+
+    /**
+     * Removes every container from the index, ie, when the world changes.
+     */
+    public static void clear() {
+        if (chunks.isEmpty()) return;
+        chunks.clear();
+        changed();
+    }
+
+    /**
+     * Visits every container in the index.
+     *
+     * @param visitor - The callback for each container.
+     */
+    public static void forEach(Visitor visitor) {
+        if (dirty) compact();
+        for (int i = 0; i < size; i++) {
+            var pos = positions[i];
+            visitor.visit(BlockPos.unpackLongX(pos), BlockPos.unpackLongY(pos), BlockPos.unpackLongZ(pos), types[i]);
+        }
+    }
+
+    /**
+     * Gets the number of containers in the index.
+     *
+     * @return The number of containers.
+     */
+    public static int size() {
+        if (dirty) compact();
+        return size;
+    }
+
+    /**
+     * Gets a number that changes each time the index changes, so callers can cache anything built from it.
+     *
+     * @return The current version of the index.
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks the index as changed.
+     */
+    private static void changed() {
+        dirty = true;
+        version++;
+    }
+
+    /**
+     * Rebuilds the flat arrays of positions and types from the chunks.
+     */
+    private static void compact() {
+        var count = 0;
+        for (var chunk : chunks.values()) count += chunk.size();
+        if (positions.length < count) {
+            positions = new long[count];
+            types = new byte[count];
+        }
+        var i = 0;
+        for (var chunk : chunks.values()) {
+            for (var entry : chunk.long2ByteEntrySet()) {
+                positions[i] = entry.getLongKey();
+                types[i] = entry.getByteValue();
+                i++;
+            }
+        }
+        size = count;
+        dirty = false;
+    }
+}
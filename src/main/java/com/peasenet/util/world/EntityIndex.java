@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
+
+/**
+ * @author gt3ch1
+ * @version 7/10/2022
+ * A snapshot of the entities in the client world, rebuilt once per tick. Entities are sorted into a grid of 16 by 16
+ * block columns, so that ESP, tracers and combat mods can look up the entities near a point instead of scanning every
+ * entity in the world. All methods must be called from the client thread.
+ */
+public final class EntityIndex {
+
+    /**
+     * The category of dropped items.
+     */
+    public static final byte ITEM = 0;
+
+    /**
+     * The category of players.
+     */
+    public static final byte PLAYER = 1;
+
+    /**
+     * The category of hostile mobs.
+     */
+    public static final byte HOSTILE = 2;
+
+    /**
+     * The category of every other entity, ie, peaceful mobs.
+     */
+    public static final byte PEACEFUL = 3;
+
+    /**
+     * A mask that matches every category.
+     */
+    public static final int ALL = (1 << ITEM) | (1 << PLAYER) | (1 << HOSTILE) | (1 << PEACEFUL);
+
+    /**
+     * The size of a grid cell, as a power of two.
+     */
+    private static final int CELL_SHIFT = 4;
+
+    /**
+     * The index of each grid cell in cellStart and cellCount, keyed by the packed cell position.
+     */
+    private static final Long2IntOpenHashMap cellIndex = new Long2IntOpenHashMap();
+
+    static {
+        cellIndex.defaultReturnValue(-1);
+    }
+
+    /**
+     * The entities, sorted by grid cell.
+     */
+    private static Entity[] entities = new Entity[0];
+
+    /**
+     * The x coordinate of each entity at the time of the snapshot.
+     */
+    private static double[] xs = new double[0];
+
+    /**
+     * The y coordinate of each entity at the time of the snapshot.
+     */
+    private static double[] ys = new double[0];
+
+    /**
+     * The z coordinate of each entity at the time of the snapshot.
+     */
+    private static double[] zs = new double[0];
+
+    /**
+     * The category of each entity.
+     */
+    private static byte[] categories = new byte[0];
+
+    /**
+     * The grid cell of each entity, only used while rebuilding.
+     */
+    private static int[] cells = new int[0];
+
+    /**
+     * The offset of the first entity of each grid cell.
+     */
+    private static int[] cellStart = new int[0];
+
+    /**
+     * The number of entities in each grid cell.
+     */
+    private static int[] cellCount = new int[0];
+
+    /**
+     * The number of entities in the snapshot.
+     */
+    private static int size = 0;
+
+    /**
+     * The entities in the order they were found, only used while rebuilding.
+     */
+    private static Entity[] scratchEntities = new Entity[0];
+
+    /**
+     * The x coordinates in the order they were found, only used while rebuilding.
+     */
+    private static double[] scratchXs = new double[0];
+
+    /**
+     * The y coordinates in the order they were found, only used while rebuilding.
+     */
+    private static double[] scratchYs = new double[0];
+
+    /**
+     * The z coordinates in the order they were found, only used while rebuilding.
+     */
+    private static double[] scratchZs = new double[0];
+
+    /**
+     * The categories in the order they were found, only used while rebuilding.
+     */
+    private static byte[] scratchCategories = new byte[0];
+
+    private EntityIndex() {
+    }
+
+    /**
+     * A callback for each entity matching a query.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Visits a single entity.
+         *
+         * @param entity          - The entity.
+         * @param category        - The category of the entity.
+         * @param squaredDistance - The squared distance between the entity and the center of the query.
+         */
+        void visit(Entity entity, byte category, double squaredDistance);
+    }
+
+    /**
+     * Gets the category of the given entity.
+     *
+     * @param entity - The entity.
+     * @return The category of the entity.
+     */
+    public static byte categoryOf(Entity entity) {
+        var type = entity.getType();
+        if (type == EntityType.ITEM) return ITEM;
+        if (type == EntityType.PLAYER) return PLAYER;
+        return type.getSpawnGroup().isPeaceful() ? PEACEFUL : HOSTILE;
+    }
+
+    /**
+     * Rebuilds the snapshot from the entities of the given world.
+     *
+     * @param world   - The world, or null to clear the snapshot.
+     * @param exclude - An entity to leave out of the snapshot, ie, the player.
+     */
+    public static void rebuild(ClientWorld world, Entity exclude) {
+        var previousSize = size;
+        cellIndex.clear();
+        size = 0;
+        if (world == null) {
+            Arrays.fill(entities, 0, previousSize, null);
+            return;
+        }
+        var capacity = Math.max(world.getRegularEntityCount(), 16);
+        ensureCapacity(capacity);
+        var count = 0;
+        var cellTotal = 0;
+        for (var entity : world.getEntities()) {
+            if (entity == exclude) continue;
+            if (count == scratchEntities.length) ensureCapacity(count * 2);
+            var x = entity.getX();
+            var z = entity.getZ();
+            var key = ChunkPos.toLong((int) Math.floor(x) >> CELL_SHIFT, (int) Math.floor(z) >> CELL_SHIFT);
+            var cell = cellIndex.get(key);
+            if (cell < 0) {
+                cell = cellTotal++;
+                cellIndex.put(key, cell);
+                if (cell == cellCount.length) cellCount = Arrays.copyOf(cellCount, Math.max(16, cell * 2));
+                cellCount[cell] = 0;
+            }
+            cellCount[cell]++;
+            scratchEntities[count] = entity;
+            scratchXs[count] = x;
+            scratchYs[count] = entity.getY();
+            scratchZs[count] = z;
+            scratchCategories[count] = categoryOf(entity);
+            cells[count] = cell;
+            count++;
+        }
+        // counting sort of the entities by cell.
+        if (cellStart.length < cellTotal) cellStart = new int[cellCount.length];
+        var offset = 0;
+        for (int i = 0; i < cellTotal; i++) {
+            cellStart[i] = offset;
+            offset += cellCount[i];
+            cellCount[i] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            var cell = cells[i];
+            var to = cellStart[cell] + cellCount[cell]++;
+            entities[to] = scratchEntities[i];
+            xs[to] = scratchXs[i];
+            ys[to] = scratchYs[i];
+            zs[to] = scratchZs[i];
+            categories[to] = scratchCategories[i];
+        }
+        // drop references to entities that are no longer in the snapshot.
+        if (previousSize > count) Arrays.fill(entities, count, previousSize, null);
+        Arrays.fill(scratchEntities, 0, count, null);
+        size = count;
+    }
+
+    /**
+     * Makes sure all arrays can hold at least the given number of entities.
+     *
+     * @param capacity - The number of entities.
+     */
+    private static void ensureCapacity(int capacity) {
+        if (scratchEntities.length >= capacity) return;
+        scratchEntities = Arrays.copyOf(scratchEntities, capacity);
+        scratchXs = Arrays.copyOf(scratchXs, capacity);
+        scratchYs = Arrays.copyOf(scratchYs, capacity);
+        scratchZs = Arrays.copyOf(scratchZs, capacity);
+        scratchCategories = Arrays.copyOf(scratchCategories, capacity);
+        cells = Arrays.copyOf(cells, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+    }
+
+    /**
+     * Visits every entity of the given categories within the given radius of a point.
+     *
+     * @param x          - The x coordinate of the point.
+     * @param y          - The y coordinate of the point.
+     * @param z          - The z coordinate of the point.
+     * @param radius     - The radius to search in.
+     * @param categories - A mask of the categories to visit, ie, (1 << ITEM) | (1 << PLAYER).
+     * @param visitor    - The callback for each matching entity.
+     */
+    public static void forEachNear(double x, double y, double z, double radius, int categories, Visitor visitor) {
+        if (size == 0 || categories == 0) return;
+        var squaredRadius = radius * radius;
+        var minCellX = (int) Math.floor(x - radius) >> CELL_SHIFT;
+        var maxCellX = (int) Math.floor(x + radius) >> CELL_SHIFT;
+        var minCellZ = (int) Math.floor(z - radius) >> CELL_SHIFT;
+        var maxCellZ = (int) Math.floor(z + radius) >> CELL_SHIFT;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                var cell = cellIndex.get(ChunkPos.toLong(cellX, cellZ));
+                if (cell < 0) continue;
+                var end = cellStart[cell] + cellCount[cell];
+                for (int i = cellStart[cell]; i < end; i++) {
+                    var category = EntityIndex.categories[i];
+                    if ((categories & (1 << category)) == 0) continue;
+                    var dx = xs[i] - x;
+                    var dy = ys[i] - y;
+                    var dz = zs[i] - z;
+                    var squaredDistance = dx * dx + dy * dy + dz * dz;
+                    if (squaredDistance <= squaredRadius)
+                        visitor.visit(entities[i], category, squaredDistance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of entities in the snapshot.
+     *
+     * @return The number of entities.
+     */
+    public static int size() {
+        return size;
+    }
+}
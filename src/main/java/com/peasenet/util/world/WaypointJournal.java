@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.world;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.peasenet.main.GavinsMod;
+import com.peasenet.mods.render.waypoints.Waypoint;
+import com.peasenet.util.io.AsyncFileWriter;
+import com.peasenet.util.jfr.JfrEvents;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Persists the waypoints in their own files: a compacted list of all waypoints, and a journal of the changes made
+ * since. Recording a change appends a single line to the journal, and once the journal grows long enough it is folded
+ * back into the compacted list. All file access happens on the IO thread of AsyncFileWriter, in order.
+ */
+final class WaypointJournal {
+
+    /**
+     * How many records the journal may hold before it is compacted.
+     */
+    private static final int COMPACT_THRESHOLD = 128;
+
+    /**
+     * The gson instance used to read and write waypoints.
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * The file holding the compacted list of waypoints.
+     */
+    private final Path snapshotPath;
+
+    /**
+     * The file holding the changes made since the last compaction, one record per line.
+     */
+    private final Path journalPath;
+
+    /**
+     * The number of records in the journal.
+     */
+    private int records = 0;
+
+    /**
+     * Whether a waypoint file could not be read and is still in place. The journal is never compacted then, since
+     * that would replace the file with only the waypoints that could be read.
+     */
+    private boolean damaged = false;
+
+    /**
+     * Creates a new journal in the given directory.
+     *
+     * @param dir - The directory to keep the waypoint files in.
+     */
+    WaypointJournal(Path dir) {
+        snapshotPath = dir.resolve("waypoints.json");
+        journalPath = dir.resolve("waypoints.journal");
+    }
+
+    /**
+     * Loads the waypoints by reading the compacted list and replaying the journal on top of it. If there are no
+     * waypoint files yet, the given legacy waypoints are used and written out as the first compacted list.
+     *
+     * @param key    - Gets the identity of a waypoint, so updates and deletes replace the right one.
+     * @param legacy - The waypoints to start with when there are no waypoint files.
+     * @return The loaded waypoints.
+     */
+    List<Waypoint> load(Function<Waypoint, String> key, Collection<Waypoint> legacy) {
+        if (!Files.exists(snapshotPath) && !Files.exists(journalPath)) {
+            var waypoints = new ArrayList<>(legacy);
+            if (!waypoints.isEmpty()) {
+                GavinsMod.LOGGER.info("Moving " + waypoints.size() + " waypoints out of the settings file.");
+                compact(waypoints);
+            }
+            return waypoints;
+        }
+        var waypoints = new LinkedHashMap<String, Waypoint>();
+        var event = JfrEvents.beginFileIo(snapshotPath.getFileName().toString(), "read");
+        var bytes = 0L;
+        if (Files.exists(snapshotPath)) {
+            try (var reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+                bytes += Files.size(snapshotPath);
+                List<Waypoint> compacted = GSON.fromJson(reader, new TypeToken<ArrayList<Waypoint>>() {
+                }.getType());
+                if (compacted != null)
+                    compacted.forEach(w -> waypoints.put(key.apply(w), w));
+            } catch (IOException | JsonParseException e) {
+                GavinsMod.LOGGER.error("Error reading waypoints.");
+                GavinsMod.LOGGER.error(e.getMessage());
+                moveAside();
+            }
+        }
+        if (Files.exists(journalPath)) {
+            try (var reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+                bytes += Files.size(journalPath);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    Record record;
+                    try {
+                        record = GSON.fromJson(line, Record.class);
+                    } catch (JsonParseException e) {
+                        // only the last line can be cut off, by a crash while it was being appended.
+                        GavinsMod.LOGGER.error("Skipping damaged waypoint journal record.");
+                        continue;
+                    }
+                    if (record == null || record.waypoint == null) continue;
+                    records++;
+                    if (Record.DELETE.equals(record.op)) waypoints.remove(key.apply(record.waypoint));
+                    else waypoints.put(key.apply(record.waypoint), record.waypoint);
+                }
+            } catch (IOException e) {
+                GavinsMod.LOGGER.error("Error reading the waypoint journal.");
+                GavinsMod.LOGGER.error(e.getMessage());
+                damaged = true;
+            }
+        }
+        if (event != null) event.bytes = bytes;
+        JfrEvents.commit(event);
+        var loaded = new ArrayList<>(waypoints.values());
+        if (records > 0 && !damaged) compact(loaded);
+        return loaded;
+    }
+
+    /**
+     * Moves the compacted list aside to a backup file, the same way the settings file is when it can not be read, so
+     * the next compaction does not overwrite the waypoints it still holds.
+     */
+    private void moveAside() {
+        var name = snapshotPath.getFileName().toString();
+        var backup = snapshotPath.resolveSibling(name + ".bak");
+        for (int i = 1; Files.exists(backup); i++)
+            backup = snapshotPath.resolveSibling(name + ".bak" + i);
+        try {
+            Files.move(snapshotPath, backup);
+            GavinsMod.LOGGER.info("Moved the unreadable waypoints to " + backup.getFileName() + ".");
+        } catch (IOException e) {
+            GavinsMod.LOGGER.error("Error moving the unreadable waypoints aside.");
+            GavinsMod.LOGGER.error(e.getMessage());
+            damaged = true;
+        }
+    }
+
+    /**
+     * Records that the given waypoint was added or changed.
+     *
+     * @param w   - The waypoint.
+     * @param all - Gets all waypoints after the change, only called if the journal has to be compacted.
+     */
+    void put(Waypoint w, Supplier<Collection<Waypoint>> all) {
+        append(Record.PUT, w, all);
+    }
+
+    /**
+     * Records that many waypoints were added at once. Rather than a record for each, the journal is compacted.
+     *
+     * @param all - All waypoints after the change.
+     */
+    void putAll(Collection<Waypoint> all) {
+        compact(all);
+    }
+
+    /**
+     * Records that the given waypoint was deleted.
+     *
+     * @param w   - The waypoint.
+     * @param all - Gets all waypoints after the change, only called if the journal has to be compacted.
+     */
+    void delete(Waypoint w, Supplier<Collection<Waypoint>> all) {
+        append(Record.DELETE, w, all);
+    }
+
+    /**
+     * Waits for all waypoint changes to be written.
+     */
+    void flush() {
+        try {
+            AsyncFileWriter.execute(() -> {
+            }).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            GavinsMod.LOGGER.error("Error flushing waypoints.");
+            GavinsMod.LOGGER.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Appends a record to the journal, or compacts the journal if it has grown too long. The record is serialized
+     * right away, so later changes to the waypoint do not leak into it.
+     *
+     * @param op  - The operation of the record.
+     * @param w   - The waypoint.
+     * @param all - Gets all waypoints after the change.
+     */
+    private void append(String op, Waypoint w, Supplier<Collection<Waypoint>> all) {
+        if (++records > COMPACT_THRESHOLD && !damaged) {
+            compact(all.get());
+            return;
+        }
+        appendLines(GSON.toJson(new Record(op, w)) + "\n");
+    }
+
+    /**
+     * Appends the given serialized records to the journal on the IO thread.
+     *
+     * @param line - The records, each ending with a line break.
+     */
+    private void appendLines(String line) {
+        AsyncFileWriter.execute(() -> {
+            var event = JfrEvents.beginFileIo(journalPath.getFileName().toString(), "append");
+            try {
+                Files.writeString(journalPath, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+                if (event != null) event.bytes = line.length();
+                JfrEvents.commit(event);
+            } catch (IOException e) {
+                GavinsMod.LOGGER.error("Error appending to the waypoint journal.");
+                GavinsMod.LOGGER.error(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes all waypoints to the compacted list, and then empties the journal. If the game stops between the two, the
+     * journal is replayed on top of a list that already contains its changes, which gives the same waypoints. If a
+     * waypoint file could not be read, the waypoints are appended to the journal instead.
+     *
+     * @param all - All waypoints.
+     */
+    private void compact(Collection<Waypoint> all) {
+        if (damaged) {
+            // keep every change in the journal, rather than overwriting the file that could not be read.
+            var lines = new StringBuilder();
+            for (var w : all)
+                lines.append(GSON.toJson(new Record(Record.PUT, w))).append('\n');
+            records += all.size();
+            appendLines(lines.toString());
+            return;
+        }
+        records = 0;
+        JsonElement snapshot = GSON.toJsonTree(new ArrayList<>(all));
+        AsyncFileWriter.execute(() -> {
+            try {
+                AsyncFileWriter.writeAtomically(snapshotPath, writer -> GSON.toJson(snapshot, writer));
+                Files.deleteIfExists(journalPath);
+            } catch (IOException e) {
+                GavinsMod.LOGGER.error("Error compacting the waypoint journal.");
+                GavinsMod.LOGGER.error(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * A single change in the journal.
+     */
+    private static final class Record {
+
+        /**
+         * The operation of a waypoint that was added or changed.
+         */
+        static final String PUT = "put";
+
+        /**
+         * The operation of a waypoint that was deleted.
+         */
+        static final String DELETE = "delete";
+
+        /**
+         * The operation of this record.
+         */
+        private final String op;
+
+        /**
+         * The waypoint that was changed.
+         */
+        private final Waypoint waypoint;
+
+        /**
+         * Creates a new record.
+         *
+         * @param op       - The operation.
+         * @param waypoint - The waypoint.
+         */
+        private Record(String op, Waypoint waypoint) {
+            this.op = op;
+            this.waypoint = waypoint;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.world;
+
+import com.peasenet.mods.render.waypoints.Waypoint;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.ChunkPos;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Owns the waypoints, partitioned by the server they were made on and the dimension they are in. The waypoints of the
+ * world the player is in are published as an immutable snapshot with a grid index, so the render thread never has to
+ * copy, filter or deserialize the waypoints. The snapshot is rebuilt the first time it is read after a change, so a
+ * burst of changes costs a single rebuild. Changes are saved to a journal of their own, see WaypointJournal.
+ * Mutating methods must be called from the client thread.
+ */
+public final class WaypointStore {
+
+    /**
+     * The partition of waypoints that were saved before waypoints knew their server and dimension. They are shown in
+     * every world, the same as before.
+     */
+    private static final String GLOBAL = "";
+
+    /**
+     * The size of a grid cell, as a power of two, in blocks.
+     */
+    private static final int CELL_SHIFT = 6;
+
+    /**
+     * The waypoints of each partition, keyed by #partitionOf.
+     */
+    private static final HashMap<String, ArrayList<Waypoint>> partitions = new HashMap<>();
+
+    /**
+     * The journal the waypoints are saved to, or null if the store has not been opened.
+     */
+    private static WaypointJournal journal;
+
+    /**
+     * The snapshot of the waypoints in the current world, or null if it has to be rebuilt.
+     */
+    private static volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * The world the snapshot was built for.
+     */
+    private static ClientWorld currentWorld;
+
+    /**
+     * The server address of the current world, or null if there is no world.
+     */
+    private static String currentServer;
+
+    /**
+     * The dimension of the current world, or null if there is no world.
+     */
+    private static String currentDimension;
+
+    private WaypointStore() {
+    }
+
+    /**
+     * Loads the waypoints saved in the given directory, replacing all waypoints.
+     *
+     * @param dir    - The directory the waypoint files are kept in.
+     * @param legacy - The waypoints that were saved in the settings file, used when there are no waypoint files yet.
+     */
+    public static synchronized void open(Path dir, Collection<Waypoint> legacy) {
+        journal = new WaypointJournal(dir);
+        load(journal.load(WaypointStore::keyOf, legacy));
+    }
+
+    /**
+     * Replaces all waypoints, without saving them.
+     *
+     * @param waypoints - The waypoints to own.
+     */
+    public static synchronized void load(Collection<Waypoint> waypoints) {
+        partitions.clear();
+        for (var w : waypoints)
+            partitions.computeIfAbsent(partitionOf(w), k -> new ArrayList<>()).add(w);
+        invalidate();
+    }
+
+    /**
+     * Adds the given waypoint, replacing the waypoint with the same name in the same partition. Waypoints that do not
+     * have a server yet are put into the current world.
+     *
+     * @param w - The waypoint to add.
+     */
+    public static synchronized void add(Waypoint w) {
+        if (w.getServer() == null && currentServer != null) {
+            w.setServer(currentServer);
+            w.setDimension(currentDimension);
+        }
+        var partition = partitions.computeIfAbsent(partitionOf(w), k -> new ArrayList<>());
+        partition.removeIf(wp -> wp.equals(w));
+        partition.add(w);
+        invalidate();
+        if (journal != null) journal.put(w, WaypointStore::getAll);
+    }
+
+    /**
+     * Adds the given waypoints in one batch, replacing the waypoints with the same names in the same partitions. The
+     * snapshot is rebuilt once, and the waypoints are saved with a single compaction instead of a record each.
+     *
+     * @param waypoints - The waypoints to add.
+     */
+    public static synchronized void addAll(Collection<Waypoint> waypoints) {
+        if (waypoints.isEmpty()) return;
+        var incoming = new HashMap<String, LinkedHashMap<String, Waypoint>>();
+        for (var w : waypoints) {
+            if (w.getServer() == null && currentServer != null) {
+                w.setServer(currentServer);
+                w.setDimension(currentDimension);
+            }
+            incoming.computeIfAbsent(partitionOf(w), k -> new LinkedHashMap<>()).put(w.getName(), w);
+        }
+        incoming.forEach((key, byName) -> {
+            var partition = partitions.computeIfAbsent(key, k -> new ArrayList<>());
+            partition.removeIf(wp -> byName.containsKey(wp.getName()));
+            partition.addAll(byName.values());
+        });
+        invalidate();
+        if (journal != null) journal.putAll(getAll());
+    }
+
+    /**
+     * Removes the waypoint with the same name as the given waypoint from its partition.
+     *
+     * @param w - The waypoint to remove.
+     */
+    public static synchronized void remove(Waypoint w) {
+        var partition = partitions.get(partitionOf(w));
+        if (partition == null || !partition.removeIf(wp -> wp.equals(w))) return;
+        if (partition.isEmpty()) partitions.remove(partitionOf(w));
+        invalidate();
+        if (journal != null) journal.delete(w, WaypointStore::getAll);
+    }
+
+    /**
+     * Waits for all changes to the waypoints to be saved.
+     */
+    public static void flush() {
+        if (journal != null) journal.flush();
+    }
+
+    /**
+     * Gets all waypoints of every partition, in the form they are saved in.
+     *
+     * @return A new list of all waypoints.
+     */
+    public static synchronized ArrayList<Waypoint> getAll() {
+        var all = new ArrayList<Waypoint>();
+        partitions.values().forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * Switches the snapshot to the given world. This is cheap when the world has not changed, so it is called every
+     * tick. Changing dimension creates a new client world, so that is picked up as well.
+     *
+     * @param world - The world the player is in, or null if there is none.
+     */
+    public static void setWorld(ClientWorld world) {
+        if (world == currentWorld) return;
+        synchronized (WaypointStore.class) {
+            currentWorld = world;
+            if (world == null) {
+                currentServer = null;
+                currentDimension = null;
+            } else {
+                currentServer = serverOf(MinecraftClient.getInstance());
+                currentDimension = world.getRegistryKey().getValue().toString();
+            }
+            invalidate();
+        }
+    }
+
+    /**
+     * Gets the snapshot of the enabled waypoints in the current world. This is safe to call from any thread.
+     *
+     * @return The current snapshot.
+     */
+    public static Snapshot getSnapshot() {
+        var current = snapshot;
+        return current != null ? current : rebuildSnapshot();
+    }
+
+    /**
+     * Drops the snapshot, so it is rebuilt the next time it is read.
+     */
+    private static void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * Rebuilds the snapshot from the partitions of the current world, unless another thread already did.
+     *
+     * @return The current snapshot.
+     */
+    private static synchronized Snapshot rebuildSnapshot() {
+        if (snapshot != null) return snapshot;
+        var waypoints = new ArrayList<Waypoint>();
+        addEnabled(waypoints, partitions.get(GLOBAL));
+        if (currentServer != null)
+            addEnabled(waypoints, partitions.get(partitionOf(currentServer, currentDimension)));
+        var rebuilt = new Snapshot(waypoints);
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * Adds the enabled waypoints of the given partition to the given list.
+     *
+     * @param list      - The list to add to.
+     * @param partition - The partition, or null if it does not exist.
+     */
+    private static void addEnabled(List<Waypoint> list, List<Waypoint> partition) {
+        if (partition == null) return;
+        for (var w : partition)
+            if (w.isEnabled()) list.add(w);
+    }
+
+    /**
+     * Gets the name of the server the client is connected to. Singleplayer worlds use the name of the save.
+     *
+     * @param client - The minecraft client.
+     * @return The server address or save name.
+     */
+    private static String serverOf(MinecraftClient client) {
+        var entry = client.getCurrentServerEntry();
+        if (entry != null) return entry.address;
+        var server = client.getServer();
+        if (server != null) return "local:" + server.getSaveProperties().getLevelName();
+        return "unknown";
+    }
+
+    /**
+     * Gets the identity of the given waypoint, which is its name within its partition.
+     *
+     * @param w - The waypoint.
+     * @return The identity of the waypoint.
+     */
+    private static String keyOf(Waypoint w) {
+        return partitionOf(w) + "|" + w.getName();
+    }
+
+    /**
+     * Gets the partition the given waypoint belongs to.
+     *
+     * @param w - The waypoint.
+     * @return The partition key.
+     */
+    private static String partitionOf(Waypoint w) {
+        if (w.getServer() == null) return GLOBAL;
+        return partitionOf(w.getServer(), w.getDimension());
+    }
+
+    /**
+     * Gets the partition key of the given server and dimension.
+     *
+     * @param server    - The server address.
+     * @param dimension - The dimension.
+     * @return The partition key.
+     */
+    private static String partitionOf(String server, String dimension) {
+        return server + "|" + Objects.requireNonNullElse(dimension, "");
+    }
+
+    /**
+     * An immutable view of the enabled waypoints in one world, with the waypoints sorted into a grid of 64 by 64 block
+     * columns.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The snapshot of a world without waypoints.
+         */
+        private static final Snapshot EMPTY = new Snapshot(List.of());
+
+        /**
+         * The enabled waypoints.
+         */
+        private final List<Waypoint> waypoints;
+
+        /**
+         * The enabled waypoints that have a tracer.
+         */
+        private final List<Waypoint> tracers;
+
+        /**
+         * The waypoints in each grid cell, keyed by the packed cell position.
+         */
+        private final Long2ObjectOpenHashMap<Waypoint[]> grid = new Long2ObjectOpenHashMap<>();
+
+        /**
+         * Creates a snapshot of the given waypoints.
+         *
+         * @param waypoints - The enabled waypoints.
+         */
+        private Snapshot(List<Waypoint> waypoints) {
+            this.waypoints = List.copyOf(waypoints);
+            this.tracers = waypoints.stream().filter(Waypoint::isTracerEnabled).toList();
+            var cells = new Long2ObjectOpenHashMap<ArrayList<Waypoint>>();
+            for (var w : waypoints)
+                cells.computeIfAbsent(ChunkPos.toLong(w.getX() >> CELL_SHIFT, w.getZ() >> CELL_SHIFT), k -> new ArrayList<>()).add(w);
+            cells.long2ObjectEntrySet().fastForEach(e -> grid.put(e.getLongKey(), e.getValue().toArray(new Waypoint[0])));
+        }
+
+        /**
+         * Gets the enabled waypoints.
+         *
+         * @return The enabled waypoints.
+         */
+        public List<Waypoint> getWaypoints() {
+            return waypoints;
+        }
+
+        /**
+         * Gets the enabled waypoints that have a tracer. Tracers point at waypoints no matter how far away they are,
+         * so these are not limited to the grid.
+         *
+         * @return The waypoints with a tracer.
+         */
+        public List<Waypoint> getTracers() {
+            return tracers;
+        }
+
+        /**
+         * Visits the waypoints in the grid cells within the given horizontal radius of the given position. Waypoints
+         * in the corners of the cells may be slightly further away than the radius.
+         *
+         * @param x       - The x coordinate.
+         * @param z       - The z coordinate.
+         * @param radius  - The radius, in blocks.
+         * @param visitor - Called with each waypoint.
+         */
+        public void forEachNear(int x, int z, int radius, Consumer<Waypoint> visitor) {
+            if (grid.isEmpty()) return;
+            var minX = (x - radius) >> CELL_SHIFT;
+            var maxX = (x + radius) >> CELL_SHIFT;
+            var minZ = (z - radius) >> CELL_SHIFT;
+            var maxZ = (z + radius) >> CELL_SHIFT;
+            for (var cx = minX; cx <= maxX; cx++) {
+                for (var cz = minZ; cz <= maxZ; cz++) {
+                    var cell = grid.get(ChunkPos.toLong(cx, cz));
+                    if (cell == null) continue;
+                    for (var w : cell)
+                        visitor.accept(w);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.peasenet.util.world;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.peasenet.main.GavinsMod;
+import com.peasenet.mods.render.waypoints.Waypoint;
+import com.peasenet.util.color.Color;
+import com.peasenet.util.color.Colors;
+import com.peasenet.util.io.AsyncFileWriter;
+import com.peasenet.util.jfr.JfrEvents;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * Imports and exports waypoints in bulk, as CSV or as JSON lines. Imports are read one line at a time, so the size of
+ * the file does not matter, and imported waypoints are added to the waypoint store in a single batch. Exports are
+ * formatted on the client thread and written on the IO thread.
+ * <p>
+ * CSV files have the columns name, x, y, z, color, enabled, esp, tracer, server and dimension. Only the first four
+ * are required, the color is written as #RRGGBB and a header row is skipped. JSON lines files have one waypoint
+ * object per line, in the same form as waypoints.json.
+ */
+public final class WaypointTransfer {
+
+    /**
+     * The header row of exported CSV files.
+     */
+    private static final String CSV_HEADER = "name,x,y,z,color,enabled,esp,tracer,server,dimension";
+
+    /**
+     * The largest absolute x or z coordinate a waypoint can have, the same as the world border.
+     */
+    private static final int MAX_HORIZONTAL = 30_000_000;
+
+    /**
+     * The largest absolute y coordinate a waypoint can have, the same as World#isValid.
+     */
+    private static final int MAX_VERTICAL = 20_000_000;
+
+    /**
+     * How many invalid lines are logged per import, so a broken file does not flood the log.
+     */
+    private static final int MAX_LOGGED_ERRORS = 10;
+
+    /**
+     * The gson instance used to read and write JSON lines.
+     */
+    private static final Gson GSON = new Gson();
+
+    private WaypointTransfer() {
+    }
+
+    /**
+     * Whether the given file has an extension that can be imported or exported.
+     *
+     * @param file - The file.
+     * @return Whether the file is a CSV or JSON lines file.
+     */
+    public static boolean isSupported(Path file) {
+        return isCsv(file) || isJsonLines(file);
+    }
+
+    /**
+     * Reads the waypoints from the given file. Invalid lines are skipped, and when a name appears more than once in
+     * the same server and dimension, the last one wins. This blocks for as long as the file takes to read, so it should
+     * be called from a worker thread rather than the client thread or the IO thread of AsyncFileWriter.
+     *
+     * @param file - The CSV or JSON lines file to read.
+     * @return The valid, deduplicated waypoints and how many lines were skipped.
+     * @throws IOException If the file could not be read.
+     */
+    public static ImportResult read(Path file) throws IOException {
+        var csv = isCsv(file);
+        var waypoints = new LinkedHashMap<String, Waypoint>();
+        var lines = 0;
+        var invalid = 0;
+        var event = JfrEvents.beginFileIo(file.getFileName().toString(), "read");
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                if (line.isBlank() || (csv && lines == 1 && line.startsWith("name,"))) continue;
+                Waypoint w;
+                try {
+                    w = csv ? parseCsv(line) : parseJson(line);
+                } catch (RuntimeException e) {
+                    w = null;
+                }
+                if (w == null) {
+                    if (invalid++ < MAX_LOGGED_ERRORS)
+                        GavinsMod.LOGGER.warn("Skipping invalid waypoint on line " + lines + " of " + file.getFileName() + ".");
+                    continue;
+                }
+                var key = w.getServer() + "|" + w.getDimension() + "|" + w.getName();
+                waypoints.put(key, w);
+            }
+        }
+        if (event != null) event.bytes = Files.size(file);
+        JfrEvents.commit(event);
+        return new ImportResult(new ArrayList<>(waypoints.values()), invalid);
+    }
+
+    /**
+     * Formats the given waypoints as the lines of the given file. Waypoints are shared with the game, so this should
+     * be called on the client thread and only the returned lines handed to the IO thread.
+     *
+     * @param file      - The CSV or JSON lines file the lines are for.
+     * @param waypoints - The waypoints to format.
+     * @return The lines of the file, including the CSV header.
+     */
+    public static List<String> format(Path file, Collection<Waypoint> waypoints) {
+        var csv = isCsv(file);
+        var lines = new ArrayList<String>(waypoints.size() + 1);
+        if (csv) lines.add(CSV_HEADER);
+        for (var w : waypoints)
+            lines.add(csv ? formatCsv(w) : GSON.toJson(w));
+        return List.copyOf(lines);
+    }
+
+    /**
+     * Writes the given lines to the given file. This blocks, so it should only be called from the IO thread.
+     *
+     * @param file  - The CSV or JSON lines file to write.
+     * @param lines - The lines from {@link #format(Path, Collection)}.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(Path file, List<String> lines) throws IOException {
+        AsyncFileWriter.writeAtomically(file, writer -> {
+            for (var line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        });
+    }
+
+    /**
+     * Parses a single CSV row.
+     *
+     * @param line - The row.
+     * @return The waypoint, or null if the row is not a valid waypoint.
+     */
+    private static Waypoint parseCsv(String line) {
+        var fields = splitCsv(line);
+        if (fields.size() < 4) return null;
+        var w = new Waypoint(Integer.parseInt(fields.get(1).trim()), Integer.parseInt(fields.get(2).trim()),
+                Integer.parseInt(fields.get(3).trim()));
+        w.setName(fields.get(0).trim());
+        w.setColor(fields.size() > 4 && !fields.get(4).isBlank() ? parseColor(fields.get(4).trim()) : Colors.WHITE);
+        w.setEnabled(parseFlag(fields, 5));
+        w.setEspEnabled(parseFlag(fields, 6));
+        w.setTracerEnabled(parseFlag(fields, 7));
+        if (fields.size() > 8 && !fields.get(8).isBlank()) {
+            w.setServer(fields.get(8).trim());
+            w.setDimension(fields.size() > 9 && !fields.get(9).isBlank() ? fields.get(9).trim() : null);
+        }
+        return validate(w);
+    }
+
+    /**
+     * Parses a single JSON line. Missing flags default to true, the same as in CSV files.
+     *
+     * @param line - The line.
+     * @return The waypoint, or null if the line is not a valid waypoint.
+     */
+    private static Waypoint parseJson(String line) {
+        JsonObject json;
+        try {
+            json = JsonParser.parseString(line).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            return null;
+        }
+        var w = GSON.fromJson(json, Waypoint.class);
+        if (!json.has("enabled")) w.setEnabled(true);
+        if (!json.has("espEnabled")) w.setEspEnabled(true);
+        if (!json.has("tracerEnabled")) w.setTracerEnabled(true);
+        if (w.getColor() == null) w.setColor(Colors.WHITE);
+        return validate(w);
+    }
+
+    /**
+     * Checks that the given waypoint has a name and lies within the world, and replaces spaces in its name the same
+     * way waypoints made in game are.
+     *
+     * @param w - The waypoint.
+     * @return The waypoint, or null if it is not valid.
+     */
+    private static Waypoint validate(Waypoint w) {
+        if (w.getName() == null || w.getName().isBlank()) return null;
+        if (Math.abs(w.getX()) > MAX_HORIZONTAL || Math.abs(w.getZ()) > MAX_HORIZONTAL || Math.abs(w.getY()) > MAX_VERTICAL)
+            return null;
+        w.setName(w.getName().replace(' ', '_'));
+        return w;
+    }
+
+    /**
+     * Parses a color written as #RRGGBB.
+     *
+     * @param value - The color.
+     * @return The color.
+     */
+    private static Color parseColor(String value) {
+        if (value.startsWith("#")) value = value.substring(1);
+        return Color.fromInt(Integer.parseInt(value, 16));
+    }
+
+    /**
+     * Parses an optional true or false column, which defaults to true.
+     *
+     * @param fields - The columns of the row.
+     * @param index  - The index of the column.
+     * @return The value of the column.
+     */
+    private static boolean parseFlag(List<String> fields, int index) {
+        if (fields.size() <= index || fields.get(index).isBlank()) return true;
+        return Boolean.parseBoolean(fields.get(index).trim());
+    }
+
+    /**
+     * Splits a CSV row into its columns. Columns may be quoted, with quotes inside them written twice.
+     *
+     * @param line - The row.
+     * @return The columns.
+     */
+    private static List<String> splitCsv(String line) {
+        var fields = new ArrayList<String>(10);
+        var field = new StringBuilder();
+        var quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') field.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') field.append(line.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Formats a single CSV row.
+     *
+     * @param w - The waypoint.
+     * @return The row.
+     */
+    private static String formatCsv(Waypoint w) {
+        return quoteCsv(w.getName()) + "," + w.getX() + "," + w.getY() + "," + w.getZ() + ","
+                + (w.getColor() == null ? "" : String.format("#%06X", w.getColor().getAsInt()))
+                + "," + w.isEnabled() + "," + w.isEspEnabled() + "," + w.isTracerEnabled() + ","
+                + (w.getServer() == null ? "" : quoteCsv(w.getServer())) + ","
+                + (w.getDimension() == null ? "" : quoteCsv(w.getDimension()));
+    }
+
+    /**
+     * Quotes a CSV column if it contains a comma or a quote.
+     *
+     * @param value - The column.
+     * @return The column, quoted if needed.
+     */
+    private static String quoteCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Whether the given file is a CSV file.
+     *
+     * @param file - The file.
+     * @return Whether the file ends with .csv.
+     */
+    private static boolean isCsv(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    /**
+     * Whether the given file is a JSON lines file.
+     *
+     * @param file - The file.
+     * @return Whether the file ends with .jsonl.
+     */
+    private static boolean isJsonLines(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jsonl");
+    }
+
+    /**
+     * The outcome of reading an import file.
+     *
+     * @param waypoints - The valid, deduplicated waypoints.
+     * @param invalid   - How many lines were skipped because they were not valid waypoints.
+     */
+    public record ImportResult(List<Waypoint> waypoints, int invalid) {
+    }
+}
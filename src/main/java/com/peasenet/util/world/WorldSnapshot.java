@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2022. Gavin Pease and contributors.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so, subject to the
+ *  following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT
+ * OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.peasenet.util.world;
+
+import com.peasenet.util.color.Colors;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Vec3d;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author gt3ch1
+ * @version 7/11/2022
+ * A snapshot of everything the esp and tracer renderer reads from the world: the camera, the entities, the containers
+ * and the waypoints. Snapshots are written to a small gzipped binary file, so worlds that are slow to render (ie, mob
+ * farms or storage halls) can be replayed through the renderer offline, without the game.
+ * <p>
+ * The file starts with the magic number and the version, followed by (all big endian):
+ * <pre>
+ *     camera:     double x, y, z, float yaw, pitch
+ *     entities:   int count, then count * (double x, y, z, float width, height, byte category)
+ *     containers: int count, then count * (int x, y, z, byte type)
+ *     waypoints:  int count, then count * (int x, y, z, int color, byte flags)
+ * </pre>
+ */
+public final class WorldSnapshot {
+
+    /**
+     * The magic number at the start of every snapshot file ("GMSS").
+     */
+    public static final int MAGIC = 0x474D5353;
+
+    /**
+     * The version of the file format.
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * The waypoint flag set when the waypoint has its esp enabled.
+     */
+    public static final byte WAYPOINT_ESP = 1;
+
+    /**
+     * The waypoint flag set when the waypoint has its tracer enabled.
+     */
+    public static final byte WAYPOINT_TRACER = 2;
+
+    /**
+     * The position of the camera.
+     */
+    private final double cameraX, cameraY, cameraZ;
+
+    /**
+     * The rotation of the camera, in degrees.
+     */
+    private final float yaw, pitch;
+
+    /**
+     * The positions of the entities, as x, y, z triples.
+     */
+    private final double[] entityPositions;
+
+    /**
+     * The sizes of the entities, as width, height pairs.
+     */
+    private final float[] entitySizes;
+
+    /**
+     * The category of each entity (see EntityIndex).
+     */
+    private final byte[] entityCategories;
+
+    /**
+     * The positions of the containers, as x, y, z triples.
+     */
+    private final int[] containerPositions;
+
+    /**
+     * The type of each container (see ContainerIndex).
+     */
+    private final byte[] containerTypes;
+
+    /**
+     * The positions of the waypoints, as x, y, z triples.
+     */
+    private final int[] waypointPositions;
+
+    /**
+     * The color of each waypoint, as an rgb int.
+     */
+    private final int[] waypointColors;
+
+    /**
+     * The flags of each waypoint (WAYPOINT_ESP and WAYPOINT_TRACER).
+     */
+    private final byte[] waypointFlags;
+
+    /**
+     * Creates a new snapshot from the given data. The arrays are kept as they are, not copied.
+     *
+     * @param camera             - The position of the camera.
+     * @param yaw                - The yaw of the camera.
+     * @param pitch              - The pitch of the camera.
+     * @param entityPositions    - The positions of the entities, as x, y, z triples.
+     * @param entitySizes        - The sizes of the entities, as width, height pairs.
+     * @param entityCategories   - The category of each entity.
+     * @param containerPositions - The positions of the containers, as x, y, z triples.
+     * @param containerTypes     - The type of each container.
+     * @param waypointPositions  - The positions of the waypoints, as x, y, z triples.
+     * @param waypointColors     - The color of each waypoint.
+     * @param waypointFlags      - The flags of each waypoint.
+     */
+    public WorldSnapshot(Vec3d camera, float yaw, float pitch, double[] entityPositions, float[] entitySizes,
+                         byte[] entityCategories, int[] containerPositions, byte[] containerTypes,
+                         int[] waypointPositions, int[] waypointColors, byte[] waypointFlags) {
+        cameraX = camera.x;
+        cameraY = camera.y;
+        cameraZ = camera.z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.entityPositions = entityPositions;
+        this.entitySizes = entitySizes;
+        this.entityCategories = entityCategories;
+        this.containerPositions = containerPositions;
+        this.containerTypes = containerTypes;
+        this.waypointPositions = waypointPositions;
+        this.waypointColors = waypointColors;
+        this.waypointFlags = waypointFlags;
+    }
+
+    /**
+     * Captures the current world from the entity index, the container index and the waypoints. Must be called on the
+     * client thread.
+     *
+     * @param camera - The entity the camera is attached to, usually the player.
+     * @param radius - The radius around the camera to capture entities in, ie, the view distance in blocks.
+     * @return The snapshot.
+     */
+    public static WorldSnapshot capture(Entity camera, double radius) {
+        var capacity = EntityIndex.size();
+        var entityPositions = new double[capacity * 3];
+        var entitySizes = new float[capacity * 2];
+        var entityCategories = new byte[capacity];
+        var entities = new int[1];
+        EntityIndex.forEachNear(camera.getX(), camera.getY(), camera.getZ(), radius, EntityIndex.ALL, (e, category, squaredDistance) -> {
+            var i = entities[0]++;
+            entityPositions[i * 3] = e.getX();
+            entityPositions[i * 3 + 1] = e.getY();
+            entityPositions[i * 3 + 2] = e.getZ();
+            entitySizes[i * 2] = e.getWidth();
+            entitySizes[i * 2 + 1] = e.getHeight();
+            entityCategories[i] = category;
+        });
+
+        var containerCount = ContainerIndex.size();
+        var containerPositions = new int[containerCount * 3];
+        var containerTypes = new byte[containerCount];
+        var containers = new int[1];
+        ContainerIndex.forEach((x, y, z, type) -> {
+            var i = containers[0]++;
+            containerPositions[i * 3] = x;
+            containerPositions[i * 3 + 1] = y;
+            containerPositions[i * 3 + 2] = z;
+            containerTypes[i] = type;
+        });
+
+        var waypoints = WaypointStore.getSnapshot().getWaypoints();
+        var waypointPositions = new int[waypoints.size() * 3];
+        var waypointColors = new int[waypoints.size()];
+        var waypointFlags = new byte[waypoints.size()];
+        for (int i = 0; i < waypoints.size(); i++) {
+            var w = waypoints.get(i);
+            waypointPositions[i * 3] = w.getX();
+            waypointPositions[i * 3 + 1] = w.getY();
+            waypointPositions[i * 3 + 2] = w.getZ();
+            waypointColors[i] = (w.getColor() == null ? Colors.WHITE : w.getColor()).getAsInt();
+            waypointFlags[i] = (byte) ((w.isEspEnabled() ? WAYPOINT_ESP : 0) | (w.isTracerEnabled() ? WAYPOINT_TRACER : 0));
+        }
+        var entityCount = entities[0];
+        return new WorldSnapshot(camera.getEyePos(), camera.getYaw(), camera.getPitch(),
+                Arrays.copyOf(entityPositions, entityCount * 3), Arrays.copyOf(entitySizes, entityCount * 2),
+                Arrays.copyOf(entityCategories, entityCount), containerPositions, containerTypes, waypointPositions, waypointColors, waypointFlags);
+    }
+
+    /**
+     * Writes this snapshot to the given file.
+     *
+     * @param path - The file to write to.
+     * @throws IOException If the file could not be written.
+     */
+    public void write(Path path) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(path))))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeDouble(cameraX);
+            out.writeDouble(cameraY);
+            out.writeDouble(cameraZ);
+            out.writeFloat(yaw);
+            out.writeFloat(pitch);
+            out.writeInt(getEntityCount());
+            for (int i = 0; i < getEntityCount(); i++) {
+                out.writeDouble(entityPositions[i * 3]);
+                out.writeDouble(entityPositions[i * 3 + 1]);
+                out.writeDouble(entityPositions[i * 3 + 2]);
+                out.writeFloat(entitySizes[i * 2]);
+                out.writeFloat(entitySizes[i * 2 + 1]);
+                out.writeByte(entityCategories[i]);
+            }
+            out.writeInt(getContainerCount());
+            for (int i = 0; i < getContainerCount(); i++) {
+                out.writeInt(containerPositions[i * 3]);
+                out.writeInt(containerPositions[i * 3 + 1]);
+                out.writeInt(containerPositions[i * 3 + 2]);
+                out.writeByte(containerTypes[i]);
+            }
+            out.writeInt(getWaypointCount());
+            for (int i = 0; i < getWaypointCount(); i++) {
+                out.writeInt(waypointPositions[i * 3]);
+                out.writeInt(waypointPositions[i * 3 + 1]);
+                out.writeInt(waypointPositions[i * 3 + 2]);
+                out.writeInt(waypointColors[i]);
+                out.writeByte(waypointFlags[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot from the given file.
+     *
+     * @param path - The file to read.
+     * @return The snapshot.
+     * @throws IOException If the file could not be read, or is not a snapshot of a supported version.
+     */
+    public static WorldSnapshot read(Path path) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != MAGIC) throw new IOException(path.getFileName() + " is not a world snapshot.");
+            var version = in.readShort();
+            if (version != VERSION) throw new IOException("Unsupported world snapshot version " + version + ".");
+            var camera = new Vec3d(in.readDouble(), in.readDouble(), in.readDouble());
+            var yaw = in.readFloat();
+            var pitch = in.readFloat();
+
+            var entityCount = readCount(in);
+            var entityPositions = new double[entityCount * 3];
+            var entitySizes = new float[entityCount * 2];
+            var entityCategories = new byte[entityCount];
+            for (int i = 0; i < entityCount; i++) {
+                entityPositions[i * 3] = in.readDouble();
+                entityPositions[i * 3 + 1] = in.readDouble();
+                entityPositions[i * 3 + 2] = in.readDouble();
+                entitySizes[i * 2] = in.readFloat();
+                entitySizes[i * 2 + 1] = in.readFloat();
+                entityCategories[i] = in.readByte();
+            }
+
+            var containerCount = readCount(in);
+            var containerPositions = new int[containerCount * 3];
+            var containerTypes = new byte[containerCount];
+            for (int i = 0; i < containerCount; i++) {
+                containerPositions[i * 3] = in.readInt();
+                containerPositions[i * 3 + 1] = in.readInt();
+                containerPositions[i * 3 + 2] = in.readInt();
+                containerTypes[i] = in.readByte();
+            }
+
+            var waypointCount = readCount(in);
+            var waypointPositions = new int[waypointCount * 3];
+            var waypointColors = new int[waypointCount];
+            var waypointFlags = new byte[waypointCount];
+            for (int i = 0; i < waypointCount; i++) {
+                waypointPositions[i * 3] = in.readInt();
+                waypointPositions[i * 3 + 1] = in.readInt();
+                waypointPositions[i * 3 + 2] = in.readInt();
+                waypointColors[i] = in.readInt();
+                waypointFlags[i] = in.readByte();
+            }
+            return new WorldSnapshot(camera, yaw, pitch, entityPositions, entitySizes, entityCategories,
+                    containerPositions, containerTypes, waypointPositions, waypointColors, waypointFlags);
+        }
+    }
+
+    /**
+     * Reads the number of elements of a section of a snapshot file.
+     *
+     * @param in - The stream to read from.
+     * @return The number of elements.
+     * @throws IOException If the count is negative or too large to be real.
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        var count = in.readInt();
+        if (count < 0 || count > 1 << 24) throw new IOException("Corrupt world snapshot, invalid count " + count + ".");
+        return count;
+    }
+
+    /**
+     * Gets the position of the camera.
+     *
+     * @return The position of the camera.
+     */
+    public Vec3d getCamera() {
+        return new Vec3d(cameraX, cameraY, cameraZ);
+    }
+
+    /**
+     * Gets the yaw of the camera.
+     *
+     * @return The yaw, in degrees.
+     */
+    public float getYaw() {
+        return yaw;
+    }
+
+    /**
+     * Gets the pitch of the camera.
+     *
+     * @return The pitch, in degrees.
+     */
+    public float getPitch() {
+        return pitch;
+    }
+
+    /**
+     * Gets the number of entities.
+     *
+     * @return The number of entities.
+     */
+    public int getEntityCount() {
+        return entityCategories.length;
+    }
+
+    /**
+     * Gets the positions of the entities, as x, y, z triples. The array must not be modified.
+     *
+     * @return The positions of the entities.
+     */
+    public double[] getEntityPositions() {
+        return entityPositions;
+    }
+
+    /**
+     * Gets the sizes of the entities, as width, height pairs. The array must not be modified.
+     *
+     * @return The sizes of the entities.
+     */
+    public float[] getEntitySizes() {
+        return entitySizes;
+    }
+
+    /**
+     * Gets the category of each entity. The array must not be modified.
+     *
+     * @return The categories of the entities.
+     */
+    public byte[] getEntityCategories() {
+        return entityCategories;
+    }
+
+    /**
+     * Gets the number of containers.
+     *
+     * @return The number of containers.
+     */
+    public int getContainerCount() {
+        return containerTypes.length;
+    }
+
+    /**
+     * Gets the positions of the containers, as x, y, z triples. The array must not be modified.
+     *
+     * @return The positions of the containers.
+     */
+    public int[] getContainerPositions() {
+        return containerPositions;
+    }
+
+    /**
+     * Gets the type of each container. The array must not be modified.
+     *
+     * @return The types of the containers.
+     */
+    public byte[] getContainerTypes() {
+        return containerTypes;
+    }
+
+    /**
+     * Gets the number of waypoints.
+     *
+     * @return The number of waypoints.
+     */
+    public int getWaypointCount() {
+        return waypointFlags.length;
+    }
+
+    /**
+     * Gets the positions of the waypoints, as x, y, z triples. The array must not be modified.
+     *
+     * @return The positions of the waypoints.
+     */
+    public int[] getWaypointPositions() {
+        return waypointPositions;
+    }
+
+    /**
+     * Gets the color of each waypoint, as an rgb int. The array must not be modified.
+     *
+     * @return The colors of the waypoints.
+     */
+    public int[] getWaypointColors() {
+        return waypointColors;
+    }
+
+    /**
+     * Gets the flags of each waypoint. The array must not be modified.
+     *
+     * @return The flags of the waypoints.
+     */
+    public byte[] getWaypointFlags() {
+        return waypointFlags;
+    }
+}